@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes files by writing a temporary file next to them and moving it over them, so that a crash part way
+ * through a write never leaves a truncated file behind.
+ */
+@Slf4j
+class AtomicFiles
+{
+	interface Content
+	{
+		void write(OutputStream out) throws IOException;
+	}
+
+	static void write(File file, Content content) throws IOException
+	{
+		File dir = file.getAbsoluteFile().getParentFile();
+		dir.mkdirs();
+		File tmp = new File(dir, file.getName() + ".tmp");
+		try
+		{
+			try (FileOutputStream out = new FileOutputStream(tmp))
+			{
+				content.write(out);
+				// the data must be on disk before the rename is, or a crash can still leave an empty file
+				out.getFD().sync();
+			}
+			move(tmp, file);
+		}
+		catch (IOException ex)
+		{
+			tmp.delete();
+			throw ex;
+		}
+	}
+
+	static void write(File file, byte[] bytes) throws IOException
+	{
+		write(file, out -> out.write(bytes));
+	}
+
+	static void writeJson(File file, Gson gson, Object value) throws IOException
+	{
+		write(file, out ->
+		{
+			Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			gson.toJson(value, writer);
+			writer.flush();
+		});
+	}
+
+	/**
+	 * Move a file over another, atomically if the file system supports it
+	 */
+	static void move(File from, File to) throws IOException
+	{
+		try
+		{
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			log.debug("atomic move not supported", ex);
+			Files.move(from.toPath(), to.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
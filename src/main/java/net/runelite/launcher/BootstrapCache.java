@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On disk cache for the bootstrap documents. Cached documents are revalidated with conditional requests,
+ * and can be used for a limited time when the server can't be reached.
+ */
+@Slf4j
+class BootstrapCache
+{
+	private static final Gson GSON = new Gson();
+	private static final int HTTP_NOT_MODIFIED = 304;
+
+	@Value
+	static class Document
+	{
+		private byte[] bytes;
+		/**
+		 * whether the server confirmed the cached copy is current
+		 */
+		private boolean notModified;
+		private String etag;
+		private String lastModified;
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private static class Meta
+	{
+		private String etag;
+		private String lastModified;
+		private String sha256;
+		/**
+		 * time the cached copy was last verified or confirmed current by the server
+		 */
+		private long verified;
+	}
+
+	/**
+	 * Fetch {@code url}, revalidating the copy cached in {@code file} if there is one
+	 */
+	static Document fetch(String url, File file) throws IOException
+	{
+		Meta meta = readMeta(file);
+		byte[] cached = meta != null ? readCached(file, meta) : null;
+
+		HttpRequest.Builder request = LauncherHttpClient.request(url)
+			.header("Accept-Encoding", "gzip");
+		if (cached != null)
+		{
+			if (meta.getEtag() != null)
+			{
+				request.header("If-None-Match", meta.getEtag());
+			}
+			if (meta.getLastModified() != null)
+			{
+				request.header("If-Modified-Since", meta.getLastModified());
+			}
+		}
+
+		HttpResponse<InputStream> response = LauncherHttpClient.sendChecked(request.build());
+		if (response.statusCode() == HTTP_NOT_MODIFIED && cached != null)
+		{
+			response.body().close();
+			log.debug("{} not modified", url);
+			return new Document(cached, true, meta.getEtag(), meta.getLastModified());
+		}
+
+		HttpHeaders headers = response.headers();
+		InputStream in = response.body();
+		if ("gzip".equalsIgnoreCase(headers.firstValue("Content-Encoding").orElse(null)))
+		{
+			in = new GZIPInputStream(in);
+		}
+
+		byte[] bytes;
+		try (InputStream i = in)
+		{
+			bytes = i.readAllBytes();
+		}
+
+		return new Document(bytes, false, headers.firstValue("ETag").orElse(null), headers.firstValue("Last-Modified").orElse(null));
+	}
+
+	/**
+	 * Store a document in the cache. This must only be called once the document has been verified.
+	 */
+	static void store(File file, Document document)
+	{
+		try
+		{
+			if (!document.isNotModified())
+			{
+				write(file, document.getBytes());
+			}
+
+			Meta meta = new Meta(document.getEtag(), document.getLastModified(), sha256(document.getBytes()), System.currentTimeMillis());
+			write(metaFile(file), GSON.toJson(meta).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to cache {}", file, ex);
+		}
+	}
+
+	/**
+	 * Load the cached copy of a document, if it was verified no longer than {@code maxAge} ago
+	 */
+	static byte[] loadStale(File file, Duration maxAge)
+	{
+		Meta meta = readMeta(file);
+		if (meta == null || System.currentTimeMillis() - meta.getVerified() > maxAge.toMillis())
+		{
+			return null;
+		}
+
+		return readCached(file, meta);
+	}
+
+	private static byte[] readCached(File file, Meta meta)
+	{
+		try
+		{
+			byte[] bytes = Files.readAllBytes(file.toPath());
+			// the document and its metadata are written separately, so make sure they belong together
+			return sha256(bytes).equals(meta.getSha256()) ? bytes : null;
+		}
+		catch (IOException ex)
+		{
+			return null;
+		}
+	}
+
+	private static Meta readMeta(File file)
+	{
+		File metaFile = metaFile(file);
+		if (!metaFile.exists())
+		{
+			return null;
+		}
+
+		try (Reader reader = Files.newBufferedReader(metaFile.toPath(), StandardCharsets.UTF_8))
+		{
+			return GSON.fromJson(reader, Meta.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.debug("unable to read {}", metaFile, ex);
+			return null;
+		}
+	}
+
+	private static File metaFile(File file)
+	{
+		return new File(file.getParentFile(), file.getName() + ".meta");
+	}
+
+	private static String sha256(byte[] bytes)
+	{
+		return Hashing.sha256().hashBytes(bytes).toString();
+	}
+
+	private static void write(File file, byte[] bytes) throws IOException
+	{
+		AtomicFiles.write(file, bytes);
+	}
+}
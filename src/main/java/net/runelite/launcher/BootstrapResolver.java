@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Bootstrap;
+
+/**
+ * Combines several bootstraps into one. Layers are added in order of precedence, and where they disagree
+ * the earlier layer wins: an artifact is only taken from the first layer providing it, and a JVM flag keeps
+ * the value from the first layer setting it.
+ */
+@Slf4j
+class BootstrapResolver
+{
+	// name-version[-classifier].jar, where the version starts with a digit
+	private static final Pattern COORDINATE = Pattern.compile("^(.+?)-[0-9][^-]*(-.+)?\\.jar$");
+	// -XX:+Flag, -XX:-Flag and -XX:Flag=value
+	private static final Pattern XX_FLAG = Pattern.compile("^-XX:[+-]?([^=]+)(?:=.*)?$");
+	// flags whose value directly follows the name, such as -Xmx512m
+	private static final String[] X_FLAGS = {"-Xmx", "-Xms", "-Xss", "-Xmn"};
+
+	private final List<Bootstrap> layers = new ArrayList<>();
+
+	/**
+	 * Add a bootstrap with lower precedence than the ones already added
+	 */
+	BootstrapResolver add(Bootstrap bootstrap)
+	{
+		layers.add(bootstrap);
+		return this;
+	}
+
+	Bootstrap resolve()
+	{
+		Bootstrap resolved = new Bootstrap();
+		resolved.setArtifacts(resolveArtifacts());
+		resolved.setClientJvm9Arguments(mergeArguments("client", Bootstrap::getClientJvm9Arguments));
+		resolved.setLauncherJvm11Arguments(mergeArguments("launcher", Bootstrap::getLauncherJvm11Arguments));
+		resolved.setLauncherJvm11MacArguments(mergeArguments("launcher mac", Bootstrap::getLauncherJvm11MacArguments));
+		resolved.setLauncherJvm11WindowsArguments(mergeArguments("launcher windows", Bootstrap::getLauncherJvm11WindowsArguments));
+		resolved.setRemoves(union(Bootstrap::getRemoves));
+		resolved.setRequiredLauncherVersion(maxVersion(Bootstrap::getRequiredLauncherVersion));
+		resolved.setRequiredJVMVersion(maxVersion(Bootstrap::getRequiredJVMVersion));
+		resolved.setPatchMinor(first(Bootstrap::getPatchMinor));
+		return resolved;
+	}
+
+	private Artifact[] resolveArtifacts()
+	{
+		Map<String, Artifact> byCoordinate = new LinkedHashMap<>();
+		boolean any = false;
+		for (Bootstrap layer : layers)
+		{
+			if (layer.getArtifacts() == null)
+			{
+				continue;
+			}
+
+			any = true;
+			for (Artifact artifact : layer.getArtifacts())
+			{
+				// variants of an artifact for different platforms are all kept until the platform is chosen
+				String key = artifact.getPlatform() != null
+					? coordinate(artifact.getName()) + Arrays.toString(artifact.getPlatform())
+					: coordinate(artifact.getName());
+				Artifact existing = byCoordinate.putIfAbsent(key, artifact);
+				if (existing != null && existing != artifact)
+				{
+					if (!existing.getName().equals(artifact.getName()) || !Objects.equals(existing.getHash(), artifact.getHash()))
+					{
+						log.warn("Artifact {} conflicts with {}, using {}", artifact.getName(), existing.getName(), existing.getName());
+					}
+					else
+					{
+						log.debug("Ignoring duplicate artifact {}", artifact.getName());
+					}
+				}
+			}
+		}
+		return any ? byCoordinate.values().toArray(new Artifact[0]) : null;
+	}
+
+	private String[] mergeArguments(String kind, Function<Bootstrap, String[]> getter)
+	{
+		Map<String, List<String>> byFlag = new LinkedHashMap<>();
+		boolean any = false;
+		for (Bootstrap layer : layers)
+		{
+			String[] arguments = getter.apply(layer);
+			if (arguments == null)
+			{
+				continue;
+			}
+
+			any = true;
+			for (List<String> option : options(arguments))
+			{
+				// an option with a separate value, such as --add-opens, can be given several times
+				String key = option.size() > 1 ? String.join(" ", option) : flag(option.get(0));
+				List<String> existing = byFlag.putIfAbsent(key, option);
+				if (existing != null && !existing.equals(option))
+				{
+					log.warn("Conflicting {} JVM arguments {} and {}, using {}", kind, existing, option, existing);
+				}
+			}
+		}
+		if (!any)
+		{
+			return null;
+		}
+		return byFlag.values().stream()
+			.flatMap(List::stream)
+			.toArray(String[]::new);
+	}
+
+	/**
+	 * Group arguments into options, each of which is a flag followed by any values given as separate arguments
+	 */
+	private static List<List<String>> options(String[] arguments)
+	{
+		List<List<String>> options = new ArrayList<>();
+		for (String argument : arguments)
+		{
+			if (argument.startsWith("-") || options.isEmpty())
+			{
+				options.add(new ArrayList<>());
+			}
+			options.get(options.size() - 1).add(argument);
+		}
+		return options;
+	}
+
+	private String[] union(Function<Bootstrap, String[]> getter)
+	{
+		Set<String> values = new LinkedHashSet<>();
+		boolean any = false;
+		for (Bootstrap layer : layers)
+		{
+			String[] layerValues = getter.apply(layer);
+			if (layerValues != null)
+			{
+				any = true;
+				values.addAll(List.of(layerValues));
+			}
+		}
+		return any ? values.toArray(new String[0]) : null;
+	}
+
+	private String maxVersion(Function<Bootstrap, String> getter)
+	{
+		String max = null;
+		for (Bootstrap layer : layers)
+		{
+			String version = getter.apply(layer);
+			if (version != null && (max == null || Launcher.compareVersion(version, max) > 0))
+			{
+				max = version;
+			}
+		}
+		return max;
+	}
+
+	private String first(Function<Bootstrap, String> getter)
+	{
+		for (Bootstrap layer : layers)
+		{
+			String value = getter.apply(layer);
+			if (value != null)
+			{
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The name of an artifact without its version, so that two versions of the same library are not both used
+	 */
+	static String coordinate(String name)
+	{
+		Matcher matcher = COORDINATE.matcher(name);
+		if (!matcher.matches())
+		{
+			return name;
+		}
+		return matcher.group(2) != null ? matcher.group(1) + matcher.group(2) : matcher.group(1);
+	}
+
+	/**
+	 * The part of a JVM argument which identifies the setting it changes, so that two values of the same
+	 * setting are not both passed
+	 */
+	static String flag(String argument)
+	{
+		Matcher matcher = XX_FLAG.matcher(argument);
+		if (matcher.matches())
+		{
+			return "-XX:" + matcher.group(1);
+		}
+
+		for (String flag : X_FLAGS)
+		{
+			if (argument.startsWith(flag))
+			{
+				return flag;
+			}
+		}
+
+		int eq = argument.indexOf('=');
+		if (argument.startsWith("-D") && eq != -1)
+		{
+			return argument.substring(0, eq);
+		}
+
+		return argument;
+	}
+}
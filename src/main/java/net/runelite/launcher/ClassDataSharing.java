@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manages a class data sharing archive for the client, so that the client's classes are loaded from a
+ * memory mapped archive instead of being parsed and verified from its jars on every start. An archive is
+ * specific to a classpath and JVM, so it is named after a digest of both, and archives for anything else
+ * are deleted.
+ */
+@Slf4j
+class ClassDataSharing
+{
+	// Magic numbers of static and dynamic CDS archives, which are in the platform's byte order
+	private static final int STATIC_MAGIC = 0xf00baba2;
+	private static final int DYNAMIC_MAGIC = 0xf00baba8;
+	// Anything smaller can't be more than a truncated header
+	private static final long MIN_ARCHIVE_SIZE = 4096;
+
+	private static final String[] EXPLICIT_FLAGS = {
+		"-XX:SharedArchiveFile", "-XX:ArchiveClassesAtExit", "-XX:+AutoCreateSharedArchive",
+		"-XX:AOTCache", "-XX:AOTCacheOutput", "-XX:AOTMode", "-Xshare:off"
+	};
+
+	/**
+	 * @param dir directory to keep archives in
+	 * @param classpath the classpath the client is launched with
+	 * @param jvmArgs the other JVM arguments, which take precedence if they or the user's environment options
+	 *                already configure class sharing
+	 * @param create whether to create the archive if there isn't one, which only one client may do at a time
+	 * @return the JVM arguments to use or create the archive with
+	 */
+	static List<String> jvmArgs(File dir, Collection<File> classpath, Collection<String> jvmArgs, boolean create)
+	{
+		List<String> explicit = new ArrayList<>(jvmArgs);
+		explicit.addAll(JvmLauncher.environmentOptions());
+		for (String arg : explicit)
+		{
+			for (String flag : EXPLICIT_FLAGS)
+			{
+				if (arg.startsWith(flag))
+				{
+					log.debug("Class data sharing is configured by {}", arg);
+					return List.of();
+				}
+			}
+		}
+
+		int feature = Runtime.version().feature();
+		if (feature < 13)
+		{
+			return List.of();
+		}
+
+		dir.mkdirs();
+		String key = key(classpath);
+		boolean aot = feature >= 25;
+		File archive = new File(dir, "client-" + key + (aot ? ".aot" : ".jsa"));
+		deleteOthers(dir, archive);
+
+		if (archive.exists() && !isValid(archive))
+		{
+			log.warn("Discarding corrupt class data sharing archive {}", archive);
+			delete(archive);
+		}
+
+		if (!create)
+		{
+			if (!archive.exists())
+			{
+				return List.of();
+			}
+			return List.of((aot ? "-XX:AOTCache=" : "-XX:SharedArchiveFile=") + archive.getAbsolutePath());
+		}
+
+		if (aot)
+		{
+			// The cache is recorded from the first run and written when the client exits
+			return archive.exists()
+				? List.of("-XX:AOTCache=" + archive.getAbsolutePath())
+				: List.of("-XX:AOTCacheOutput=" + archive.getAbsolutePath());
+		}
+		if (feature >= 19)
+		{
+			// The JVM creates the archive itself, and recreates it if it doesn't match
+			return List.of("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+		}
+		return archive.exists()
+			? List.of("-XX:SharedArchiveFile=" + archive.getAbsolutePath())
+			: List.of("-XX:ArchiveClassesAtExit=" + archive.getAbsolutePath());
+	}
+
+	private static String key(Collection<File> classpath)
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(System.getProperty("java.home"), StandardCharsets.UTF_8);
+		hasher.putString(System.getProperty("java.vm.version"), StandardCharsets.UTF_8);
+		for (File file : classpath)
+		{
+			hasher.putString(file.getAbsolutePath(), StandardCharsets.UTF_8)
+				.putLong(file.length())
+				.putLong(file.lastModified());
+		}
+		return hasher.hash().toString().substring(0, 32);
+	}
+
+	private static boolean isValid(File archive)
+	{
+		if (archive.length() < MIN_ARCHIVE_SIZE)
+		{
+			return false;
+		}
+
+		byte[] header = new byte[4];
+		try (InputStream in = new FileInputStream(archive))
+		{
+			if (in.readNBytes(header, 0, header.length) != header.length)
+			{
+				return false;
+			}
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to read {}", archive, ex);
+			return false;
+		}
+
+		int magic = ByteBuffer.wrap(header).order(ByteOrder.nativeOrder()).getInt();
+		return magic == STATIC_MAGIC || magic == DYNAMIC_MAGIC;
+	}
+
+	private static void deleteOthers(File dir, File archive)
+	{
+		File[] files = dir.listFiles();
+		if (files == null)
+		{
+			return;
+		}
+
+		for (File file : files)
+		{
+			if (file.isFile() && !file.getName().equals(archive.getName()))
+			{
+				log.debug("Deleting stale class data sharing archive {}", file);
+				delete(file);
+			}
+		}
+	}
+
+	private static void delete(File file)
+	{
+		// The JVM writes archives read only, which would prevent deleting them on Windows
+		file.setWritable(true);
+		file.delete();
+	}
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks the heap size, garbage collector and GC thread counts for the client from the memory and cores of the
+ * machine, or of the cgroup the launcher runs in, shared between the clients being launched. Settings which
+ * the bootstrap or the user's JDK_JAVA_OPTIONS/JAVA_TOOL_OPTIONS already give are left alone.
+ */
+@Slf4j
+class ClientErgonomics
+{
+	private static final long MB = 1024 * 1024;
+	private static final long MIN_HEAP = 512 * MB;
+	private static final long MAX_HEAP = 4096 * MB;
+	private static final long MIN_INITIAL_HEAP = 128 * MB;
+	// below this much memory or these many cores per client, a concurrent collector costs more than it saves
+	private static final long SERIAL_MEMORY = 1792 * MB;
+	private static final long SERIAL_HEAP = MIN_HEAP;
+	private static final int SERIAL_CORES = 2;
+	private static final long ZGC_HEAP = 2048 * MB;
+	private static final int ZGC_CORES = 4;
+
+	private static final Path CGROUP = Paths.get("/sys/fs/cgroup");
+
+	/**
+	 * @param jvmArgs the JVM arguments the client is already launched with
+	 * @param instances number of clients sharing the machine
+	 * @return the arguments to add
+	 */
+	static List<String> jvmArgs(Collection<String> jvmArgs, int instances)
+	{
+		List<String> explicit = new ArrayList<>(jvmArgs);
+		explicit.addAll(JvmLauncher.environmentOptions());
+
+		long memory = memory();
+		int cores = cores();
+		List<String> args = jvmArgs(explicit, memory, cores, instances, Runtime.version().feature());
+		log.info("Client JVM ergonomics for {} MB and {} cores shared by {} client(s): {}", memory / MB, cores, instances, args);
+		return args;
+	}
+
+	static List<String> jvmArgs(Collection<String> explicit, long memory, int cores, int instances, int javaVersion)
+	{
+		Set<String> flags = new HashSet<>();
+		boolean explicitGc = false;
+		for (String arg : explicit)
+		{
+			String flag = BootstrapResolver.flag(arg);
+			flags.add(flag);
+			explicitGc |= flag.startsWith("-XX:Use") && flag.endsWith("GC");
+		}
+
+		long share = memory / Math.max(1, instances);
+		int coreShare = Math.max(1, cores / Math.max(1, instances));
+		List<String> args = new ArrayList<>();
+
+		// the collector is chosen for the heap the client actually gets, which may be an explicit one
+		long heap = explicitHeap(explicit, memory);
+		if (heap == -1)
+		{
+			heap = Math.min(MAX_HEAP, Math.max(MIN_HEAP, share / 4));
+		}
+		if (!flags.contains("-Xmx") && !flags.contains("-XX:MaxRAMPercentage") && !flags.contains("-XX:MaxRAM"))
+		{
+			args.add("-Xmx" + heap / MB + "m");
+			// only alongside our own maximum, as it must not be over an explicit one
+			if (!flags.contains("-Xms") && !flags.contains("-XX:InitialRAMPercentage"))
+			{
+				args.add("-Xms" + Math.max(MIN_INITIAL_HEAP, heap / 4) / MB + "m");
+			}
+		}
+
+		if (explicitGc)
+		{
+			return args;
+		}
+
+		String gc;
+		if (share < SERIAL_MEMORY || coreShare < SERIAL_CORES || heap < SERIAL_HEAP)
+		{
+			gc = "Serial";
+			args.add("-XX:+UseSerialGC");
+		}
+		else if (javaVersion >= 21 && heap >= ZGC_HEAP && coreShare >= ZGC_CORES)
+		{
+			gc = "Z";
+			args.add("-XX:+UseZGC");
+			if (javaVersion < 23)
+			{
+				// generational ZGC is the default from 23
+				args.add("-XX:+ZGenerational");
+			}
+		}
+		else
+		{
+			gc = "G1";
+			args.add("-XX:+UseG1GC");
+		}
+
+		if (!gc.equals("Serial"))
+		{
+			int parallel = Math.min(coreShare, 8);
+			if (!gc.equals("Z") && !flags.contains("-XX:ParallelGCThreads"))
+			{
+				args.add("-XX:ParallelGCThreads=" + parallel);
+			}
+			if (!flags.contains("-XX:ConcGCThreads"))
+			{
+				args.add("-XX:ConcGCThreads=" + Math.max(1, parallel / 4));
+			}
+		}
+
+		// string deduplication was G1 only until 18
+		if ((gc.equals("G1") || javaVersion >= 18) && !flags.contains("-XX:UseStringDeduplication"))
+		{
+			args.add("-XX:+UseStringDeduplication");
+		}
+		return args;
+	}
+
+	/**
+	 * The maximum heap the JVM arguments give, the same way the JVM works it out
+	 *
+	 * @return the maximum heap in bytes, or -1 if the arguments leave it to us
+	 */
+	static long explicitHeap(Collection<String> explicit, long memory)
+	{
+		long xmx = -1;
+		long maxRam = -1;
+		double percentage = -1;
+		for (String arg : explicit)
+		{
+			try
+			{
+				if (arg.startsWith("-Xmx"))
+				{
+					xmx = parseSize(arg.substring(4));
+				}
+				else if (arg.startsWith("-XX:MaxRAM="))
+				{
+					maxRam = parseSize(arg.substring(11));
+				}
+				else if (arg.startsWith("-XX:MaxRAMPercentage="))
+				{
+					percentage = Double.parseDouble(arg.substring(21));
+				}
+			}
+			catch (NumberFormatException ex)
+			{
+				log.debug("unable to parse JVM argument {}", arg, ex);
+			}
+		}
+
+		if (xmx != -1)
+		{
+			return xmx;
+		}
+		if (maxRam == -1 && percentage == -1)
+		{
+			return -1;
+		}
+		// the JVM's default is a quarter of the memory
+		return (long) ((maxRam != -1 ? Math.min(maxRam, memory) : memory) * (percentage != -1 ? percentage : 25) / 100);
+	}
+
+	/**
+	 * Parse a JVM size, such as 512m
+	 */
+	private static long parseSize(String size)
+	{
+		if (size.isEmpty())
+		{
+			throw new NumberFormatException("empty size");
+		}
+
+		long unit;
+		switch (Character.toLowerCase(size.charAt(size.length() - 1)))
+		{
+			case 'k':
+				unit = 1024;
+				break;
+			case 'm':
+				unit = MB;
+				break;
+			case 'g':
+				unit = 1024 * MB;
+				break;
+			case 't':
+				unit = 1024 * 1024 * MB;
+				break;
+			default:
+				return Long.parseLong(size);
+		}
+		return Long.parseLong(size.substring(0, size.length() - 1)) * unit;
+	}
+
+	private static long memory()
+	{
+		long memory = Long.MAX_VALUE;
+		java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean)
+		{
+			@SuppressWarnings("deprecation")
+			long physical = ((com.sun.management.OperatingSystemMXBean) os).getTotalPhysicalMemorySize();
+			if (physical > 0)
+			{
+				memory = physical;
+			}
+		}
+
+		long limit = cgroupLimit("memory", "memory.max", "memory.limit_in_bytes");
+		if (limit > 0)
+		{
+			memory = Math.min(memory, limit);
+		}
+
+		// fall back to assuming just enough for the minimum heap
+		return memory == Long.MAX_VALUE ? MIN_HEAP * 4 : memory;
+	}
+
+	private static int cores()
+	{
+		int cores = Runtime.getRuntime().availableProcessors();
+		try
+		{
+			return Math.min(cores, cgroupCores());
+		}
+		catch (NumberFormatException ex)
+		{
+			log.debug("unable to parse cgroup cpu limit", ex);
+			return cores;
+		}
+	}
+
+	/**
+	 * @return the cores the cgroup cpu quota allows, or {@link Integer#MAX_VALUE} if there is no quota
+	 */
+	private static int cgroupCores()
+	{
+		int cores = Integer.MAX_VALUE;
+		String max = cgroupFile("cpu", "cpu.max");
+		if (max != null)
+		{
+			// "quota period", where the quota is "max" if there is none
+			String[] parts = max.split(" ");
+			if (parts.length == 2 && !parts[0].equals("max"))
+			{
+				cores = quotaCores(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+			}
+			return cores;
+		}
+
+		String quota = cgroupFile("cpu", "cpu.cfs_quota_us");
+		String period = cgroupFile("cpu", "cpu.cfs_period_us");
+		if (quota != null && period != null && Long.parseLong(quota) > 0)
+		{
+			cores = quotaCores(Long.parseLong(quota), Long.parseLong(period));
+		}
+		return cores;
+	}
+
+	private static int quotaCores(long quota, long period)
+	{
+		return (int) Math.max(1, (quota + period - 1) / period);
+	}
+
+	/**
+	 * @return the cgroup v2 or v1 limit, or -1 if there is none
+	 */
+	private static long cgroupLimit(String controller, String v2File, String v1File)
+	{
+		String value = cgroupFile(controller, v2File);
+		if (value == null)
+		{
+			value = cgroupFile(controller, v1File);
+		}
+		if (value == null || value.equals("max"))
+		{
+			return -1;
+		}
+
+		try
+		{
+			long limit = Long.parseLong(value);
+			// v1 reports no limit as a huge number
+			return limit >= Long.MAX_VALUE / 2 ? -1 : limit;
+		}
+		catch (NumberFormatException ex)
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * Read a file of the cgroup the launcher is in, checking the cgroup's own directory and then the root,
+	 * which is where it is mounted inside a container
+	 */
+	private static String cgroupFile(String controller, String name)
+	{
+		if (OS.getOs() != OS.OSType.Linux)
+		{
+			return null;
+		}
+
+		List<Path> candidates = new ArrayList<>();
+		try
+		{
+			for (String line : Files.readAllLines(Paths.get("/proc/self/cgroup"), StandardCharsets.UTF_8))
+			{
+				// hierarchy-id:controllers:path, where v2 has no controllers
+				String[] parts = line.split(":", 3);
+				if (parts.length != 3)
+				{
+					continue;
+				}
+
+				String path = parts[2].startsWith("/") ? parts[2].substring(1) : parts[2];
+				if (parts[1].isEmpty())
+				{
+					candidates.add(CGROUP.resolve(path).resolve(name));
+				}
+				else if (List.of(parts[1].split(",")).contains(controller))
+				{
+					candidates.add(CGROUP.resolve(parts[1]).resolve(path).resolve(name));
+					candidates.add(CGROUP.resolve(parts[1]).resolve(name));
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to read cgroups", ex);
+			return null;
+		}
+		candidates.add(CGROUP.resolve(name));
+
+		for (Path candidate : candidates)
+		{
+			try
+			{
+				return Files.readString(candidate).trim();
+			}
+			catch (IOException ex)
+			{
+				// try the next one
+				continue;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import lombok.Value;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+
+/**
+ * Chooses how to bring each out of date artifact up to date. Artifacts and the files in the repository are
+ * nodes of a graph, and each diff is an edge from its base to the artifact it produces. A diff's base is
+ * either a file already in the repository, or another artifact produced by this same update, which allows
+ * diffs to be chained. The cheapest path to each artifact is compared against downloading it in full.
+ */
+class DiffPlanner
+{
+	/**
+	 * The way one artifact is brought up to date
+	 */
+	@Value
+	static class Step
+	{
+		Artifact artifact;
+		/**
+		 * The diff to apply, or null to download the artifact in full
+		 */
+		Diff diff;
+		/**
+		 * The artifact produced earlier in this update which the diff applies to, or null if the base is
+		 * already in the repository
+		 */
+		Artifact base;
+		/**
+		 * The number of steps this one has to wait for
+		 */
+		int wave;
+		/**
+		 * Estimated seconds until the artifact is ready, including the steps it waits for
+		 */
+		double cost;
+
+		int getDownloadSize()
+		{
+			return diff != null ? diff.getSize() : artifact.getSize();
+		}
+	}
+
+	private final double downloadRate;
+	private final double applyRate;
+
+	/**
+	 * @param downloadRate estimated download throughput, in bytes per second
+	 * @param applyRate estimated rate of writing patched output, in bytes per second
+	 */
+	DiffPlanner(double downloadRate, double applyRate)
+	{
+		this.downloadRate = downloadRate;
+		this.applyRate = applyRate;
+	}
+
+	/**
+	 * @param artifacts the artifacts which are out of date
+	 * @param localHashes hashes of the files in the repository, by file name
+	 * @param useDiffs whether diffs may be used at all
+	 * @return one step per artifact, ordered so that every step comes after the step producing its base
+	 */
+	List<Step> plan(Collection<Artifact> artifacts, Map<String, String> localHashes, boolean useDiffs)
+	{
+		Map<String, Artifact> produced = new HashMap<>();
+		for (Artifact artifact : artifacts)
+		{
+			produced.put(artifact.getName(), artifact);
+		}
+
+		PriorityQueue<Step> queue = new PriorityQueue<>(Comparator.comparingDouble(Step::getCost));
+		// diffs whose base is the new version of another artifact, by the name of that artifact
+		Map<String, List<Step>> chained = new HashMap<>();
+		for (Artifact artifact : artifacts)
+		{
+			queue.add(new Step(artifact, null, null, 0, fullCost(artifact)));
+
+			if (!useDiffs || artifact.getDiffs() == null)
+			{
+				continue;
+			}
+
+			for (Diff diff : artifact.getDiffs())
+			{
+				Artifact base = produced.get(diff.getFrom());
+				if (base != null && base != artifact)
+				{
+					// the file is replaced during this update, so only its new version can be a base
+					if (diff.getFromHash().equals(base.getHash()))
+					{
+						chained.computeIfAbsent(base.getName(), k -> new ArrayList<>())
+							.add(new Step(artifact, diff, base, 0, diffCost(artifact, diff)));
+					}
+				}
+				else if (diff.getFromHash().equals(localHashes.get(diff.getFrom())))
+				{
+					queue.add(new Step(artifact, diff, null, 0, diffCost(artifact, diff)));
+				}
+			}
+		}
+
+		Map<Artifact, Step> planned = new HashMap<>();
+		List<Step> plan = new ArrayList<>(artifacts.size());
+		while (!queue.isEmpty())
+		{
+			Step step = queue.poll();
+			if (planned.containsKey(step.getArtifact()))
+			{
+				continue;
+			}
+
+			planned.put(step.getArtifact(), step);
+			plan.add(step);
+
+			for (Step next : chained.getOrDefault(step.getArtifact().getName(), List.of()))
+			{
+				if (!planned.containsKey(next.getArtifact()))
+				{
+					queue.add(new Step(next.getArtifact(), next.getDiff(), next.getBase(), step.getWave() + 1, step.getCost() + next.getCost()));
+				}
+			}
+		}
+		return plan;
+	}
+
+	/**
+	 * @return estimated seconds to download {@code artifact} in full
+	 */
+	double fullCost(Artifact artifact)
+	{
+		return downloadCost(artifact.getSize());
+	}
+
+	private double downloadCost(int bytes)
+	{
+		return bytes / downloadRate;
+	}
+
+	private double diffCost(Artifact artifact, Diff diff)
+	{
+		return downloadCost(diff.getSize()) + artifact.getSize() / applyRate;
+	}
+}
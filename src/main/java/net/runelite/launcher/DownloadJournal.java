@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records the state of partially downloaded files so that an interrupted download can be resumed
+ */
+@Slf4j
+class DownloadJournal
+{
+	private static final Gson GSON = new Gson();
+
+	private final File file;
+	private final Map<String, Entry> entries;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class Entry
+	{
+		private String url;
+		private String hash;
+		private long received;
+		private String etag;
+		private String lastModified;
+	}
+
+	private DownloadJournal(File file, Map<String, Entry> entries)
+	{
+		this.file = file;
+		this.entries = entries;
+	}
+
+	static DownloadJournal load(File file)
+	{
+		Map<String, Entry> entries = null;
+		if (file.exists())
+		{
+			try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+			{
+				entries = GSON.fromJson(reader, new TypeToken<Map<String, Entry>>()
+				{
+				}.getType());
+			}
+			catch (IOException | JsonParseException ex)
+			{
+				log.warn("unable to read download journal", ex);
+			}
+		}
+		return new DownloadJournal(file, entries != null ? entries : new HashMap<>());
+	}
+
+	synchronized Entry get(File partial)
+	{
+		return entries.get(partial.getAbsolutePath());
+	}
+
+	synchronized void update(File partial, Entry entry)
+	{
+		entries.put(partial.getAbsolutePath(), entry);
+		save();
+	}
+
+	synchronized void remove(File partial)
+	{
+		if (entries.remove(partial.getAbsolutePath()) != null)
+		{
+			save();
+		}
+	}
+
+	private void save()
+	{
+		try
+		{
+			AtomicFiles.writeJson(file, GSON, entries);
+		}
+		catch (IOException ex)
+		{
+			// the journal is only an optimization, so failing to write it is not fatal
+			log.warn("unable to write download journal", ex);
+		}
+	}
+}
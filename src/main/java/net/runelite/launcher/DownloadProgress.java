@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Aggregates the progress of several concurrent transfers into the single splash screen progress bar
+ */
+class DownloadProgress
+{
+	private final double startProgress;
+	private final double endProgress;
+	private final AtomicInteger downloaded = new AtomicInteger();
+	private final AtomicInteger total;
+
+	DownloadProgress(double startProgress, double endProgress, int total)
+	{
+		this.startProgress = startProgress;
+		this.endProgress = endProgress;
+		this.total = new AtomicInteger(total);
+	}
+
+	/**
+	 * Adjusts the expected total, eg. when a diff fails and the full artifact has to be downloaded instead
+	 */
+	void adjustTotal(int delta)
+	{
+		total.addAndGet(delta);
+	}
+
+	Transfer transfer(String name)
+	{
+		return new Transfer(name);
+	}
+
+	class Transfer implements IntConsumer
+	{
+		private final String name;
+		private int completed;
+
+		private Transfer(String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * Accepts the number of bytes completed so far by this transfer
+		 */
+		@Override
+		public synchronized void accept(int completed)
+		{
+			int done = downloaded.addAndGet(completed - this.completed);
+			this.completed = completed;
+			SplashScreen.stage(startProgress, endProgress, null, name, done, Math.max(total.get(), done), true);
+		}
+
+		/**
+		 * Removes the bytes of this transfer from the overall progress, used when a transfer is abandoned
+		 */
+		synchronized void rollback()
+		{
+			downloaded.addAndGet(-completed);
+			completed = 0;
+		}
+	}
+}
@@ -46,6 +46,7 @@ import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.UIManager;
 import javax.swing.border.EmptyBorder;
@@ -62,8 +63,22 @@ public class FatalErrorDialog extends JDialog
 
 	private final JPanel rightColumn = new JPanel();
 	private final Font font = new Font(Font.DIALOG, Font.PLAIN, 12);
+	private boolean exitOnClose = true;
 
 	public FatalErrorDialog(String message)
+	{
+		this("Fatal error starting RuneLite", "There was a fatal error starting RuneLite", message);
+	}
+
+	/**
+	 * @param title the title of the window, which is also shown above the message
+	 */
+	public FatalErrorDialog(String title, String message)
+	{
+		this(title, title, message);
+	}
+
+	private FatalErrorDialog(String title, String heading, String message)
 	{
 		if (alreadyOpen.getAndSet(true))
 		{
@@ -101,11 +116,20 @@ public class FatalErrorDialog extends JDialog
 			@Override
 			public void windowClosing(WindowEvent e)
 			{
-				System.exit(-1);
+				if (exitOnClose)
+				{
+					System.exit(-1);
+				}
+			}
+
+			@Override
+			public void windowClosed(WindowEvent e)
+			{
+				alreadyOpen.set(false);
 			}
 		});
 
-		setTitle("Fatal error starting RuneLite");
+		setTitle(title);
 		setLayout(new BorderLayout());
 
 		Container pane = getContentPane();
@@ -115,11 +139,11 @@ public class FatalErrorDialog extends JDialog
 		leftPane.setBackground(DARKER_GRAY_COLOR);
 		leftPane.setLayout(new BorderLayout());
 
-		JLabel title = new JLabel("There was a fatal error starting RuneLite");
-		title.setForeground(Color.WHITE);
-		title.setFont(font.deriveFont(16.f));
-		title.setBorder(new EmptyBorder(10, 10, 10, 10));
-		leftPane.add(title, BorderLayout.NORTH);
+		JLabel headingLabel = new JLabel(heading);
+		headingLabel.setForeground(Color.WHITE);
+		headingLabel.setFont(font.deriveFont(16.f));
+		headingLabel.setBorder(new EmptyBorder(10, 10, 10, 10));
+		leftPane.add(headingLabel, BorderLayout.NORTH);
 
 		leftPane.setPreferredSize(new Dimension(400, 200));
 		JTextArea textArea = new JTextArea(message);
@@ -130,7 +154,11 @@ public class FatalErrorDialog extends JDialog
 		textArea.setWrapStyleWord(true);
 		textArea.setBorder(new EmptyBorder(10, 10, 10, 10));
 		textArea.setEditable(false);
-		leftPane.add(textArea, BorderLayout.CENTER);
+		// client crashes include the client's last output, which doesn't fit
+		JScrollPane scrollPane = new JScrollPane(textArea);
+		scrollPane.setBorder(null);
+		scrollPane.getViewport().setBackground(DARKER_GRAY_COLOR);
+		leftPane.add(scrollPane, BorderLayout.CENTER);
 
 		pane.add(leftPane, BorderLayout.CENTER);
 
@@ -148,9 +176,26 @@ public class FatalErrorDialog extends JDialog
 		pane.add(rightColumn, BorderLayout.EAST);
 	}
 
+	/**
+	 * Close just the dialog instead of exiting, for when the launcher still has other clients to look after
+	 */
+	public FatalErrorDialog closeOnly()
+	{
+		exitOnClose = false;
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		return this;
+	}
+
 	public void open()
 	{
-		addButton("Exit", () -> System.exit(-1));
+		if (exitOnClose)
+		{
+			addButton("Exit", () -> System.exit(-1));
+		}
+		else
+		{
+			addButton("Close", this::dispose);
+		}
 
 		pack();
 		SplashScreen.stop();
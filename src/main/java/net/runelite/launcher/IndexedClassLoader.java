@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.security.CodeSigner;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipFile;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Class loader for the client which indexes which jars contain each package up front, so that finding a class
+ * or resource only looks in the jars which have its package instead of trying every jar in turn. The jars are
+ * kept open for the life of the loader. Directories on the classpath aren't indexed, and are looked in for
+ * every name, in their place in the classpath order.
+ */
+@Slf4j
+class IndexedClassLoader extends URLClassLoader
+{
+	static
+	{
+		ClassLoader.registerAsParallelCapable();
+	}
+
+	/**
+	 * An entry on the classpath
+	 */
+	private abstract static class Source
+	{
+		final int position;
+		final URL url;
+
+		Source(int position, File file) throws MalformedURLException
+		{
+			this.position = position;
+			this.url = file.toURI().toURL();
+		}
+
+		/**
+		 * @return the contents of the class file, or null if the source doesn't have it
+		 */
+		abstract byte[] read(String path) throws IOException;
+
+		/**
+		 * @return the signers of a class file which has been read
+		 */
+		abstract CodeSigner[] signers(String path);
+
+		abstract URL resource(String name);
+
+		abstract Manifest manifest();
+	}
+
+	private static class Jar extends Source
+	{
+		private final JarFile jarFile;
+		private final Manifest manifest;
+
+		Jar(int position, File file) throws IOException
+		{
+			super(position, file);
+			jarFile = new JarFile(file, true, ZipFile.OPEN_READ, Runtime.version());
+			manifest = jarFile.getManifest();
+		}
+
+		@Override
+		byte[] read(String path) throws IOException
+		{
+			JarEntry entry = jarFile.getJarEntry(path);
+			if (entry == null)
+			{
+				return null;
+			}
+
+			try (InputStream in = jarFile.getInputStream(entry))
+			{
+				return in.readAllBytes();
+			}
+		}
+
+		@Override
+		CodeSigner[] signers(String path)
+		{
+			// the signers are only known once the entry has been read
+			JarEntry entry = jarFile.getJarEntry(path);
+			return entry != null ? entry.getCodeSigners() : null;
+		}
+
+		@Override
+		URL resource(String name)
+		{
+			if (jarFile.getJarEntry(name) == null)
+			{
+				return null;
+			}
+
+			try
+			{
+				// the entry name is a path in the URL, so it must be encoded as URLClassLoader does. It is made absolute
+				// so that a colon in it isn't taken for a scheme.
+				String path = new URI(null, null, "/" + name, null).toASCIIString();
+				return new URL("jar:" + url + "!" + path);
+			}
+			catch (MalformedURLException | URISyntaxException ex)
+			{
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		Manifest manifest()
+		{
+			return manifest;
+		}
+	}
+
+	private static class Directory extends Source
+	{
+		private final File dir;
+
+		Directory(int position, File dir) throws MalformedURLException
+		{
+			super(position, dir);
+			this.dir = dir;
+		}
+
+		@Override
+		byte[] read(String path) throws IOException
+		{
+			File file = new File(dir, path);
+			return file.isFile() ? Files.readAllBytes(file.toPath()) : null;
+		}
+
+		@Override
+		CodeSigner[] signers(String path)
+		{
+			return null;
+		}
+
+		@Override
+		URL resource(String name)
+		{
+			File file = new File(dir, name);
+			if (!file.exists())
+			{
+				return null;
+			}
+
+			try
+			{
+				return file.toURI().toURL();
+			}
+			catch (MalformedURLException ex)
+			{
+				throw new IllegalStateException(ex);
+			}
+		}
+
+		@Override
+		Manifest manifest()
+		{
+			return null;
+		}
+	}
+
+	private final List<Jar> jars = new ArrayList<>();
+	private final List<Directory> directories = new ArrayList<>();
+	// package directory, eg. net/runelite/client/, to the jars with entries in it, in classpath order
+	private final Map<String, List<Jar>> index = new HashMap<>();
+
+	IndexedClassLoader(List<File> classpath, ClassLoader parent) throws MalformedURLException
+	{
+		super(toURLs(classpath), parent);
+
+		int position = 0;
+		for (File file : classpath)
+		{
+			if (file.isDirectory())
+			{
+				directories.add(new Directory(position++, file));
+				continue;
+			}
+
+			Jar jar;
+			try
+			{
+				jar = new Jar(position++, file);
+			}
+			catch (IOException ex)
+			{
+				// as with URLClassLoader, a missing or unreadable jar is skipped
+				log.warn("Unable to open {}", file, ex);
+				continue;
+			}
+
+			jars.add(jar);
+			jar.jarFile.versionedStream()
+				.map(entry -> packageOf(entry.getName()))
+				.distinct()
+				.forEach(pkg ->
+				{
+					List<Jar> list = index.computeIfAbsent(pkg, k -> new ArrayList<>(1));
+					list.add(jar);
+				});
+		}
+
+		log.debug("Indexed {} packages in {} jars, with {} directories", index.size(), jars.size(), directories.size());
+	}
+
+	@Override
+	protected Class<?> findClass(String name) throws ClassNotFoundException
+	{
+		String path = name.replace('.', '/') + ".class";
+		for (Source source : sources(path))
+		{
+			byte[] bytes;
+			try
+			{
+				bytes = source.read(path);
+			}
+			catch (IOException ex)
+			{
+				throw new ClassNotFoundException(name, ex);
+			}
+
+			if (bytes != null)
+			{
+				return defineClass(name, source, bytes, source.signers(path));
+			}
+		}
+
+		throw new ClassNotFoundException(name);
+	}
+
+	@Override
+	public URL findResource(String name)
+	{
+		for (Source source : sources(name))
+		{
+			URL url = source.resource(name);
+			if (url != null)
+			{
+				return url;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Enumeration<URL> findResources(String name)
+	{
+		List<URL> urls = new ArrayList<>();
+		for (Source source : sources(name))
+		{
+			URL url = source.resource(name);
+			if (url != null)
+			{
+				urls.add(url);
+			}
+		}
+		return Collections.enumeration(urls);
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		for (Jar jar : jars)
+		{
+			jar.jarFile.close();
+		}
+		super.close();
+	}
+
+	/**
+	 * @return the classpath entries which might have {@code name}, in classpath order
+	 */
+	private List<? extends Source> sources(String name)
+	{
+		List<Jar> indexed = index.getOrDefault(packageOf(name), Collections.emptyList());
+		if (directories.isEmpty())
+		{
+			return indexed;
+		}
+
+		List<Source> sources = new ArrayList<>(indexed.size() + directories.size());
+		int i = 0;
+		int j = 0;
+		while (i < indexed.size() || j < directories.size())
+		{
+			if (j == directories.size() || (i < indexed.size() && indexed.get(i).position < directories.get(j).position))
+			{
+				sources.add(indexed.get(i++));
+			}
+			else
+			{
+				sources.add(directories.get(j++));
+			}
+		}
+		return sources;
+	}
+
+	private Class<?> defineClass(String name, Source source, byte[] bytes, CodeSigner[] signers)
+	{
+		int dot = name.lastIndexOf('.');
+		if (dot != -1)
+		{
+			String pkg = name.substring(0, dot);
+			if (getDefinedPackage(pkg) == null)
+			{
+				try
+				{
+					Manifest manifest = source.manifest();
+					if (manifest != null)
+					{
+						definePackage(pkg, manifest, source.url);
+					}
+					else
+					{
+						definePackage(pkg, null, null, null, null, null, null, null);
+					}
+				}
+				catch (IllegalArgumentException ex)
+				{
+					// defined concurrently by another thread
+					if (getDefinedPackage(pkg) == null)
+					{
+						throw ex;
+					}
+				}
+			}
+		}
+
+		return defineClass(name, bytes, 0, bytes.length, new CodeSource(source.url, signers));
+	}
+
+	/**
+	 * @return the directory an entry is in, including the trailing slash, or "" for the root
+	 */
+	static String packageOf(String name)
+	{
+		int end = name.endsWith("/") ? name.length() - 1 : name.length();
+		int slash = name.lastIndexOf('/', end - 1);
+		return slash == -1 ? "" : name.substring(0, slash + 1);
+	}
+
+	private static URL[] toURLs(List<File> classpath) throws MalformedURLException
+	{
+		URL[] urls = new URL[classpath.size()];
+		int i = 0;
+		for (File file : classpath)
+		{
+			urls[i++] = file.toURI().toURL();
+		}
+		return urls;
+	}
+}
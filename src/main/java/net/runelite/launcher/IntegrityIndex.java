@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.base.Throwables;
+import com.google.common.hash.HashCode;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persisted index of the hashes of files in the repository, so that files which haven't changed since they
+ * were last hashed don't have to be hashed again.
+ */
+@Slf4j
+class IntegrityIndex
+{
+	private static final Gson GSON = new Gson();
+	/**
+	 * Files modified this close to when they were indexed might have changed again within the same
+	 * timestamp granularity, so they aren't trusted until they are hashed again.
+	 */
+	private static final long RACY_WINDOW_MS = 2000;
+	private static final long MAP_THRESHOLD = 1024 * 1024;
+	private static final long MAP_CHUNK = 64 * 1024 * 1024;
+	private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(256 * 1024));
+
+	private final File file;
+	private final boolean forceVerify;
+	private final Map<String, Entry> entries;
+	private volatile boolean dirty;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private static class Entry
+	{
+		private long size;
+		private long mtime;
+		private String fileKey;
+		private String sha256;
+		private long indexed;
+	}
+
+	private IntegrityIndex(File file, boolean forceVerify, Map<String, Entry> entries)
+	{
+		this.file = file;
+		this.forceVerify = forceVerify;
+		this.entries = entries;
+	}
+
+	/**
+	 * Load the index
+	 *
+	 * @param file        file the index is stored in
+	 * @param forceVerify if set, the stored hashes are not trusted and every file is hashed again
+	 * @return the index
+	 */
+	static IntegrityIndex load(File file, boolean forceVerify)
+	{
+		Map<String, Entry> entries = null;
+		if (!forceVerify && file.exists())
+		{
+			try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+			{
+				entries = GSON.fromJson(reader, new TypeToken<ConcurrentHashMap<String, Entry>>()
+				{
+				}.getType());
+			}
+			catch (IOException | JsonParseException ex)
+			{
+				log.warn("unable to read integrity index", ex);
+			}
+		}
+		return new IntegrityIndex(file, forceVerify, entries != null ? entries : new ConcurrentHashMap<>());
+	}
+
+	/**
+	 * Get the SHA-256 of a file, from the index if the file is unchanged since it was last hashed
+	 */
+	String hash(File file) throws IOException
+	{
+		BasicFileAttributes attributes = attributes(file);
+		String key = file.getAbsolutePath();
+		if (!forceVerify)
+		{
+			Entry entry = entries.get(key);
+			if (entry != null && matches(entry, attributes))
+			{
+				return entry.getSha256();
+			}
+		}
+
+		String sha256 = sha256(file);
+		record(file, attributes, sha256);
+		return sha256;
+	}
+
+	/**
+	 * Check that a file still has a hash, without hashing it again. A file which has changed since it was
+	 * indexed, or which changed too soon before it was indexed to be trusted, is reported as changed.
+	 */
+	boolean isUnchanged(File file, String sha256)
+	{
+		if (forceVerify)
+		{
+			return false;
+		}
+
+		Entry entry = entries.get(file.getAbsolutePath());
+		if (entry == null || !sha256.equals(entry.getSha256()))
+		{
+			return false;
+		}
+
+		try
+		{
+			return matches(entry, attributes(file));
+		}
+		catch (IOException ex)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Get the SHA-256 of several files at once. Files which aren't in the index are hashed in parallel.
+	 *
+	 * @param files files to hash
+	 * @return map of file to hash, files which don't exist are omitted
+	 */
+	Map<File, String> hashAll(Collection<File> files) throws IOException
+	{
+		Map<File, String> hashes = new ConcurrentHashMap<>();
+		List<Callable<Void>> tasks = new ArrayList<>(files.size());
+		for (File file : new LinkedHashSet<>(files))
+		{
+			tasks.add(() ->
+			{
+				try
+				{
+					hashes.put(file, hash(file));
+				}
+				catch (FileNotFoundException ex)
+				{
+					// omitted from the result
+				}
+				return null;
+			});
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		try
+		{
+			for (Future<Void> future : pool.invokeAll(tasks))
+			{
+				future.get();
+			}
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException)
+			{
+				throw (IOException) cause;
+			}
+			Throwables.throwIfUnchecked(cause);
+			throw new RuntimeException(cause);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while hashing");
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		return hashes;
+	}
+
+	/**
+	 * Compute the SHA-256 of a file. The file is read through mapped or direct buffers, so its
+	 * contents are never copied onto the heap.
+	 */
+	static String sha256(File file) throws IOException
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex)
+		{
+			throw new IllegalStateException(ex);
+		}
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			// Mapped files can't be deleted or replaced on Windows until the mapping is garbage collected,
+			// which would break updating the artifacts afterwards
+			if (size >= MAP_THRESHOLD && OS.getOs() != OS.OSType.Windows)
+			{
+				for (long position = 0; position < size; position += MAP_CHUNK)
+				{
+					MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position));
+					digest.update(buffer);
+				}
+			}
+			else
+			{
+				ByteBuffer buffer = BUFFER.get();
+				buffer.clear();
+				while (channel.read(buffer) != -1)
+				{
+					buffer.flip();
+					digest.update(buffer);
+					buffer.clear();
+				}
+			}
+		}
+		catch (NoSuchFileException ex)
+		{
+			throw new FileNotFoundException(file.toString());
+		}
+
+		return HashCode.fromBytes(digest.digest()).toString();
+	}
+
+	/**
+	 * Record the hash of a file which was just verified some other way, eg. while it was downloaded
+	 */
+	void record(File file, String sha256)
+	{
+		try
+		{
+			record(file, attributes(file), sha256);
+		}
+		catch (IOException ex)
+		{
+			log.debug("unable to index {}", file, ex);
+		}
+	}
+
+	private void record(File file, BasicFileAttributes attributes, String sha256)
+	{
+		entries.put(file.getAbsolutePath(), new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+			Objects.toString(attributes.fileKey(), null), sha256, System.currentTimeMillis()));
+		dirty = true;
+	}
+
+	void save()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		entries.keySet().removeIf(path -> !new File(path).exists());
+
+		try
+		{
+			AtomicFiles.writeJson(file, GSON, entries);
+			dirty = false;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write integrity index", ex);
+		}
+	}
+
+	private static boolean matches(Entry entry, BasicFileAttributes attributes)
+	{
+		long mtime = attributes.lastModifiedTime().toMillis();
+		return entry.getSize() == attributes.size()
+			&& entry.getMtime() == mtime
+			&& Objects.equals(entry.getFileKey(), Objects.toString(attributes.fileKey(), null))
+			&& mtime + RACY_WINDOW_MS < entry.getIndexed();
+	}
+
+	private static BasicFileAttributes attributes(File file) throws IOException
+	{
+		try
+		{
+			return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		}
+		catch (NoSuchFileException ex)
+		{
+			throw new FileNotFoundException(file.toString());
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.zip.ZipException;
+
+/**
+ * Filters the entries of a zip file without recompressing them. The local header and compressed data of
+ * each kept entry is copied as-is, and a new central directory is written for them.
+ */
+class JarFilter
+{
+	private static final int LOCAL_HEADER_SIG = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+	private static final int END_SIG = 0x06054b50;
+	private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+	private static final int DATA_DESCRIPTOR_SIG = 0x08074b50;
+
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int CENTRAL_HEADER_SIZE = 46;
+	private static final int END_SIZE = 22;
+	private static final int ZIP64_LOCATOR_SIZE = 20;
+	private static final int MAX_COMMENT = 0xFFFF;
+
+	private static final int FLAG_DATA_DESCRIPTOR = 1 << 3;
+	private static final int FLAG_UTF8 = 1 << 11;
+
+	private static final String MANIFEST = "META-INF/MANIFEST.MF";
+
+	/**
+	 * Copy the entries of {@code in} accepted by {@code keep} to {@code out}. Like {@link java.util.jar.JarInputStream},
+	 * the manifest is not copied.
+	 *
+	 * @throws ZipException if the zip is malformed or uses a format which isn't supported, such as zip64
+	 */
+	static void filter(File in, File out, Predicate<String> keep) throws IOException
+	{
+		try (FileChannel src = FileChannel.open(in.toPath(), StandardOpenOption.READ);
+			FileChannel dst = FileChannel.open(out.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			long endPosition = findEnd(src);
+			ByteBuffer end = read(src, endPosition, (int) (src.size() - endPosition));
+			int entries = end.getShort(10) & 0xFFFF;
+			long centralSize = end.getInt(12) & 0xFFFFFFFFL;
+			long centralOffset = end.getInt(16) & 0xFFFFFFFFL;
+			int commentLength = end.getShort(20) & 0xFFFF;
+
+			if (entries == 0xFFFF || centralSize == 0xFFFFFFFFL || centralOffset == 0xFFFFFFFFL || hasZip64Locator(src, endPosition))
+			{
+				throw new ZipException("zip64 is not supported");
+			}
+			if (centralOffset + centralSize > endPosition)
+			{
+				throw new ZipException("invalid central directory");
+			}
+
+			ByteBuffer central = read(src, centralOffset, (int) centralSize);
+			ByteBuffer newCentral = ByteBuffer.allocate((int) centralSize).order(ByteOrder.LITTLE_ENDIAN);
+			int kept = 0;
+			long position = 0;
+
+			for (int i = 0; i < entries; ++i)
+			{
+				int header = central.position();
+				if (central.remaining() < CENTRAL_HEADER_SIZE || central.getInt(header) != CENTRAL_HEADER_SIG)
+				{
+					throw new ZipException("invalid central directory entry");
+				}
+
+				int flags = central.getShort(header + 8) & 0xFFFF;
+				long compressedSize = central.getInt(header + 20) & 0xFFFFFFFFL;
+				long uncompressedSize = central.getInt(header + 24) & 0xFFFFFFFFL;
+				int nameLength = central.getShort(header + 28) & 0xFFFF;
+				int extraLength = central.getShort(header + 30) & 0xFFFF;
+				int entryCommentLength = central.getShort(header + 32) & 0xFFFF;
+				long localOffset = central.getInt(header + 42) & 0xFFFFFFFFL;
+				int length = CENTRAL_HEADER_SIZE + nameLength + extraLength + entryCommentLength;
+
+				if (compressedSize == 0xFFFFFFFFL || uncompressedSize == 0xFFFFFFFFL || localOffset == 0xFFFFFFFFL)
+				{
+					throw new ZipException("zip64 is not supported");
+				}
+
+				byte[] nameBytes = new byte[nameLength];
+				central.position(header + CENTRAL_HEADER_SIZE);
+				central.get(nameBytes);
+				central.position(header + length);
+
+				String name = new String(nameBytes, (flags & FLAG_UTF8) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+				if (name.equals(MANIFEST) || !keep.test(name))
+				{
+					continue;
+				}
+
+				ByteBuffer local = read(src, localOffset, LOCAL_HEADER_SIZE);
+				if (local.getInt(0) != LOCAL_HEADER_SIG)
+				{
+					throw new ZipException("invalid local header for " + name);
+				}
+
+				long dataStart = localOffset + LOCAL_HEADER_SIZE + (local.getShort(26) & 0xFFFF) + (local.getShort(28) & 0xFFFF);
+				long entryEnd = dataStart + compressedSize;
+				if ((flags & FLAG_DATA_DESCRIPTOR) != 0)
+				{
+					// the descriptor may or may not start with a signature
+					entryEnd += read(src, entryEnd, 4).getInt(0) == DATA_DESCRIPTOR_SIG ? 16 : 12;
+				}
+				if (entryEnd > centralOffset)
+				{
+					throw new ZipException("entry " + name + " overlaps the central directory");
+				}
+
+				transfer(src, localOffset, entryEnd - localOffset, dst);
+
+				int newHeader = newCentral.position();
+				newCentral.put(central.duplicate().position(header).limit(header + length));
+				newCentral.putInt(newHeader + 42, (int) position);
+
+				position += entryEnd - localOffset;
+				++kept;
+			}
+
+			long newCentralOffset = position;
+			if (newCentralOffset > 0xFFFFFFFFL)
+			{
+				throw new ZipException("zip64 is not supported");
+			}
+
+			newCentral.flip();
+			int newCentralSize = newCentral.remaining();
+			write(dst, newCentral);
+
+			ByteBuffer newEnd = ByteBuffer.allocate(END_SIZE + commentLength).order(ByteOrder.LITTLE_ENDIAN);
+			newEnd.putInt(END_SIG);
+			newEnd.putShort((short) 0); // disk number
+			newEnd.putShort((short) 0); // disk with the central directory
+			newEnd.putShort((short) kept);
+			newEnd.putShort((short) kept);
+			newEnd.putInt(newCentralSize);
+			newEnd.putInt((int) newCentralOffset);
+			newEnd.putShort((short) commentLength);
+			newEnd.put(end.duplicate().position(END_SIZE).limit(END_SIZE + commentLength));
+			newEnd.flip();
+			write(dst, newEnd);
+		}
+	}
+
+	/**
+	 * Locate the end of central directory record, which is followed only by the zip comment
+	 */
+	private static long findEnd(FileChannel src) throws IOException
+	{
+		long size = src.size();
+		int length = (int) Math.min(size, END_SIZE + MAX_COMMENT);
+		ByteBuffer tail = read(src, size - length, length);
+
+		for (int i = length - END_SIZE; i >= 0; --i)
+		{
+			if (tail.getInt(i) == END_SIG && i + END_SIZE + (tail.getShort(i + 20) & 0xFFFF) == length)
+			{
+				return size - length + i;
+			}
+		}
+
+		throw new ZipException("end of central directory not found");
+	}
+
+	private static boolean hasZip64Locator(FileChannel src, long endPosition) throws IOException
+	{
+		return endPosition >= ZIP64_LOCATOR_SIZE
+			&& read(src, endPosition - ZIP64_LOCATOR_SIZE, 4).getInt(0) == ZIP64_LOCATOR_SIG;
+	}
+
+	private static ByteBuffer read(FileChannel src, long position, int length) throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining())
+		{
+			if (src.read(buffer, position + buffer.position()) == -1)
+			{
+				throw new ZipException("unexpected end of zip");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	private static void transfer(FileChannel src, long position, long count, FileChannel dst) throws IOException
+	{
+		while (count > 0)
+		{
+			long transferred = src.transferTo(position, count, dst);
+			if (transferred <= 0)
+			{
+				throw new ZipException("unexpected end of zip");
+			}
+			position += transferred;
+			count -= transferred;
+		}
+	}
+
+	private static void write(FileChannel dst, ByteBuffer buffer) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			dst.write(buffer);
+		}
+	}
+}
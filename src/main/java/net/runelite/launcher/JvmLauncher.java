@@ -24,11 +24,9 @@
  */
 package net.runelite.launcher;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -36,8 +34,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
 import lombok.extern.slf4j.Slf4j;
-import net.runelite.launcher.beans.Bootstrap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,6 +45,13 @@ class JvmLauncher
 {
 	private static final Logger logger = LoggerFactory.getLogger(JvmLauncher.class);
 
+	private static final long MAX_OUTPUT_LOG_SIZE = 10 * 1024 * 1024;
+	// lines of output shown if the client crashes
+	private static final int TAIL_LINES = 50;
+
+	// clients which haven't exited yet
+	private static final AtomicInteger running = new AtomicInteger();
+
 	private static String getJava() throws FileNotFoundException
 	{
 		Path javaHome = Paths.get(System.getProperty("java.home"));
@@ -70,11 +76,29 @@ class JvmLauncher
 		return javaPath.toAbsolutePath().toString();
 	}
 
+	/**
+	 * The JVM options the java launcher also picks up from the environment, which the user sets to pass
+	 * their own options to the client
+	 */
+	static List<String> environmentOptions()
+	{
+		List<String> options = new ArrayList<>();
+		for (String env : new String[]{"JDK_JAVA_OPTIONS", "JAVA_TOOL_OPTIONS"})
+		{
+			String value = System.getenv(env);
+			if (value != null && !value.isBlank())
+			{
+				options.addAll(Arrays.asList(value.trim().split("\\s+")));
+			}
+		}
+		return options;
+	}
+
 	static void launch(
-		Bootstrap bootstrap,
 		List<File> results,
 		Collection<String> clientArgs,
-		List<String> extraJvmParams) throws IOException
+		List<String> jvmArgs,
+		File outputLog) throws IOException
 	{
 		StringBuilder classPath = new StringBuilder();
 		for (File f : results)
@@ -94,7 +118,7 @@ class JvmLauncher
 		catch (FileNotFoundException ex)
 		{
 			logger.error("Unable to find java executable", ex);
-			return;
+			throw ex;
 		}
 
 
@@ -103,9 +127,7 @@ class JvmLauncher
 		arguments.add("-cp");
 		arguments.add(classPath.toString());
 
-		String[] jvmArguments = bootstrap.getClientJvm9Arguments();
-		arguments.addAll(Arrays.asList(jvmArguments));
-		arguments.addAll(extraJvmParams);
+		arguments.addAll(jvmArgs);
 
 		arguments.add(LauncherProperties.getMain());
 		arguments.addAll(clientArgs);
@@ -115,16 +137,61 @@ class JvmLauncher
 		ProcessBuilder builder = new ProcessBuilder(arguments.toArray(new String[0]));
 		builder.redirectErrorStream(true);
 		Process process = builder.start();
+		running.incrementAndGet();
 
 		SplashScreen.stop();
 
-		if (log.isDebugEnabled())
+		// The output must always be read, otherwise the client blocks once the pipe fills up
+		OutputPump pump = new OutputPump(process.getInputStream(), outputLog, MAX_OUTPUT_LOG_SIZE, TAIL_LINES, log.isDebugEnabled());
+		pump.start();
+
+		Thread watcher = new Thread(() -> watch(process, pump), "Client watcher");
+		watcher.start();
+	}
+
+	/**
+	 * Wait for the client to exit, and show its last output if it crashed
+	 */
+	private static void watch(Process process, OutputPump pump)
+	{
+		int exitCode;
+		try
+		{
+			pump.join();
+			exitCode = process.waitFor();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		int others = running.decrementAndGet();
+		if (exitCode == 0)
 		{
-			BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-			for (String line; (line = reader.readLine()) != null; )
+			return;
+		}
+
+		logger.error("Client exited with code {}", exitCode);
+		String output = String.join("\n", pump.getTail());
+		SwingUtilities.invokeLater(() ->
+		{
+			try
 			{
-				System.out.println(line);
+				FatalErrorDialog dialog = new FatalErrorDialog("RuneLite exited unexpectedly", "RuneLite exited unexpectedly with exit code " + exitCode
+					+ ". The last output was:\n\n" + output);
+				if (others > 0)
+				{
+					// exiting would take down the other clients' output pumps, the launcher exits after the last client instead
+					dialog.closeOnly();
+				}
+				dialog.open();
 			}
-		}
+			catch (IllegalStateException ex)
+			{
+				// another client crashed first, and its dialog is still open
+				logger.warn("Not showing crash dialog", ex);
+			}
+		});
 	}
 }
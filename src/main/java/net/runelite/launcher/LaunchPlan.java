@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The outcome of a successful launch: the classpath and arguments the client was started with. When the
+ * bootstrap and command line are the same and none of the classpath files have changed since, the next
+ * launch can reuse it instead of checking, downloading and verifying the artifacts again. Whether a file has
+ * changed is decided by the {@link IntegrityIndex}.
+ */
+@Slf4j
+@Data
+@NoArgsConstructor
+class LaunchPlan
+{
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * Digest of everything the plan was derived from other than the classpath files themselves
+	 */
+	private String key;
+	private List<FileState> classpath;
+	private List<String> clientArgs;
+	private List<String> jvmArgs;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class FileState
+	{
+		private String path;
+		private String sha256;
+	}
+
+	/**
+	 * @param hashes the hash of each file on the classpath
+	 */
+	LaunchPlan(String key, Collection<File> classpath, Map<File, String> hashes, Collection<String> clientArgs, Collection<String> jvmArgs)
+	{
+		this.key = key;
+		this.classpath = classpath.stream()
+			.map(file -> new FileState(file.getAbsolutePath(), hashes.get(file)))
+			.collect(Collectors.toList());
+		this.clientArgs = new ArrayList<>(clientArgs);
+		this.jvmArgs = new ArrayList<>(jvmArgs);
+	}
+
+	/**
+	 * @return the plan saved in {@code file}, if it was made for {@code key} and its classpath is unchanged
+	 */
+	static LaunchPlan load(File file, String key, IntegrityIndex index)
+	{
+		if (!file.exists())
+		{
+			return null;
+		}
+
+		LaunchPlan plan;
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+		{
+			plan = GSON.fromJson(reader, LaunchPlan.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to read launch plan", ex);
+			return null;
+		}
+
+		if (plan == null || plan.getClasspath() == null || plan.getClientArgs() == null || plan.getJvmArgs() == null)
+		{
+			return null;
+		}
+
+		if (!key.equals(plan.getKey()))
+		{
+			log.debug("Launch plan is for a different bootstrap or command line");
+			return null;
+		}
+
+		for (FileState state : plan.getClasspath())
+		{
+			if (state.getPath() == null || state.getSha256() == null
+				|| !index.isUnchanged(new File(state.getPath()), state.getSha256()))
+			{
+				log.debug("Launch plan is out of date, {} has changed", state.getPath());
+				return null;
+			}
+		}
+		return plan;
+	}
+
+	List<File> getClasspathFiles()
+	{
+		return classpath.stream()
+			.map(state -> new File(state.getPath()))
+			.collect(Collectors.toList());
+	}
+
+	void save(File file)
+	{
+		try
+		{
+			AtomicFiles.writeJson(file, GSON, this);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write launch plan", ex);
+		}
+	}
+}
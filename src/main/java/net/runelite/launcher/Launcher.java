@@ -27,44 +27,53 @@ package net.runelite.launcher;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import com.google.archivepatcher.applier.FileByFileV1DeltaApplier;
-import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.hash.Funnels;
 import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.hash.HashingOutputStream;
 import com.google.common.io.ByteStreams;
-import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.security.Signature;
 import java.security.SignatureException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
-import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -73,22 +82,27 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.IntConsumer;
+import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
 import java.util.jar.JarOutputStream;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
+import java.util.zip.ZipException;
 import javax.swing.SwingUtilities;
 import joptsimple.ArgumentAcceptingOptionSpec;
 import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.launcher.beans.Artifact;
 import net.runelite.launcher.beans.Bootstrap;
@@ -104,10 +118,30 @@ public class Launcher
 	private static final File CACHE_DIR = new File(RUNELITE_DIR + "/cache", "client");
 	private static final File CLIENT_HASH_FILE = new File(CACHE_DIR, "client.serial");
 	private static final File CLIENT_REPO_HASH_FILE = new File(CACHE_DIR, "client_repo.serial");
+	private static final File CLIENT_REMOVES_HASH_FILE = new File(CACHE_DIR, "client_removes.serial");
+	private static final File UPSTREAM_DIR = new File(CACHE_DIR, "upstream");
+	private static final File DOWNLOAD_JOURNAL_FILE = new File(CACHE_DIR, "downloads.json");
+	private static final File BOOTSTRAP_CACHE_FILE = new File(CACHE_DIR, "bootstrap.json");
+	private static final File BOOTSTRAP_SIG_CACHE_FILE = new File(CACHE_DIR, "bootstrap.json.sha256");
+	private static final File BLUE_BOOTSTRAP_CACHE_FILE = new File(CACHE_DIR, "bluebootstrap.json");
+	private static final Duration BOOTSTRAP_MAX_STALENESS = Duration.ofDays(7);
+	private static final File INTEGRITY_INDEX_FILE = new File(CACHE_DIR, "integrity.json");
+	private static final File TRANSFER_STATS_FILE = new File(CACHE_DIR, "transfers.json");
+	private static final File ZLIB_COMPATIBILITY_FILE = new File(CACHE_DIR, "zlib.json");
+	private static final File LAUNCH_PLAN_FILE = new File(CACHE_DIR, "launch.json");
+	private static final File CDS_DIR = new File(CACHE_DIR, "cds");
 	private static final File EXTERNALS_DIR = new File(RUNELITE_DIR, "bexternalplugins");
 	public static final File CRASH_FILES = new File(LOGS_DIR, "jvm_crash_pid_%p.log");
 	private static final String BLUELITE_BOOTSTRAP_URL = "https://github.com/Bloodspawns/c0603cb96187d5c295173c5c90d3b389671964dab55056f913c3d86c3333300b/releases/download/1.0/bootstrap.json";
-	private static final String USER_AGENT = "RuneLite/" + LauncherProperties.getVersion();
+	private static final int MAX_CONCURRENT_DOWNLOADS = 4;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int JOURNAL_INTERVAL = 4 * 1024 * 1024;
+	private static final int SEGMENTED_THRESHOLD = 8 * 1024 * 1024;
+	private static final int SEGMENTS = 4;
+	private static final int HTTP_PARTIAL = 206;
+
+	private static IntegrityIndex integrityIndex;
+	private static TransferStats transferStats;
 
 	public static void main(String[] args)
 	{
@@ -116,8 +150,30 @@ public class Launcher
 		parser.accepts("nojvm");
 		parser.accepts("debug");
 		parser.accepts("nodiff");
+		parser.accepts("segmented");
+		parser.accepts("verify", "ignore the integrity index and hash every artifact again");
 		parser.accepts("nouiscale");
+		parser.accepts("nocds", "don't use a class data sharing archive for the client");
+		final ArgumentAcceptingOptionSpec<Integer> instances = parser.accepts("instances", "number of clients to launch")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(1);
+		final ArgumentAcceptingOptionSpec<Integer> instanceStagger = parser.accepts("instance-stagger", "seconds between launching each client")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo(5);
+		final ArgumentAcceptingOptionSpec<String> instanceArgs = parser.accepts("instanceargs",
+			"extra client arguments for each client in turn, such as its --profile")
+			.withRequiredArg();
 		parser.accepts("insecure-skip-tls-verification");
+		final ArgumentAcceptingOptionSpec<Integer> connectTimeout = parser.accepts("connect-timeout", "connect timeout in seconds")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo((int) LauncherHttpClient.DEFAULT_CONNECT_TIMEOUT.getSeconds());
+		final ArgumentAcceptingOptionSpec<Integer> readTimeout = parser.accepts("read-timeout", "read timeout in seconds")
+			.withRequiredArg()
+			.ofType(Integer.class)
+			.defaultsTo((int) LauncherHttpClient.DEFAULT_READ_TIMEOUT.getSeconds());
 
 		if (OS.getOs() == OS.OSType.MacOS)
 		{
@@ -157,6 +213,9 @@ public class Launcher
 		}
 
 		final boolean nodiff = options.has("nodiff");
+		final boolean segmented = options.has("segmented");
+		integrityIndex = IntegrityIndex.load(INTEGRITY_INDEX_FILE, options.has("verify"));
+		transferStats = TransferStats.load(TRANSFER_STATS_FILE);
 		final boolean insecureSkipTlsVerification = options.has("insecure-skip-tls-verification");
 
 		// Setup debug
@@ -169,11 +228,16 @@ public class Launcher
 			logger.setLevel(Level.DEBUG);
 		}
 
-		try
+		// Startup is a graph of tasks, so that stages which don't depend on each other can overlap
+		final StartupGraph graph = new StartupGraph();
+		final StartupGraph.Task<Void> splash = graph.run("splash", () ->
 		{
 			SplashScreen.init();
 			SplashScreen.stage(0, "Preparing", "Setting up environment");
+		});
 
+		try
+		{
 			log.info("RuneLite Launcher version {}", LauncherProperties.getVersion());
 
 			// Print out system info
@@ -224,58 +288,54 @@ public class Launcher
 			log.debug("Setting JVM crash log location to {}", CRASH_FILES);
 			extraJvmParams.add("-XX:ErrorFile=" + CRASH_FILES.getAbsolutePath());
 
-			if (insecureSkipTlsVerification)
-			{
-				TrustManager trustManager = new X509TrustManager()
-				{
-					@Override
-					public void checkClientTrusted(X509Certificate[] chain, String authType)
-					{
-					}
+			LauncherHttpClient.init(Duration.ofSeconds(options.valueOf(connectTimeout)), Duration.ofSeconds(options.valueOf(readTimeout)),
+				insecureSkipTlsVerification);
 
-					@Override
-					public void checkServerTrusted(X509Certificate[] chain, String authType)
-					{
-					}
-
-					@Override
-					public X509Certificate[] getAcceptedIssuers()
-					{
-						return null;
-					}
-				};
-
-				SSLContext sc = SSLContext.getInstance("SSL");
-				sc.init(null, new TrustManager[]{trustManager}, new SecureRandom());
-				HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-				HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> true);
-			}
+			// Diffs can only be used if the system zlib is compatible with archive-patcher. Checking that is
+			// slow the first time, so it is done while the bootstrap downloads.
+			final StartupGraph.Task<Boolean> zlibCompatible = graph.submit("zlib probe", () ->
+				!nodiff && ZlibCompatibility.isCompatible(ZLIB_COMPATIBILITY_FILE));
 
 			SplashScreen.stage(.05, null, "Downloading bootstrap");
-			Bootstrap bootstrap;
+			// The bootstrap documents are all fetched at once, and the RuneLite bootstrap is verified as soon as
+			// both of its parts have arrived
+			final StartupGraph.Task<BootstrapCache.Document> bootstrapDocument = graph.submit("bootstrap download", () ->
+				BootstrapCache.fetch(LauncherProperties.getBootstrap(), BOOTSTRAP_CACHE_FILE));
+			final StartupGraph.Task<BootstrapCache.Document> signatureDocument = graph.submit("bootstrap signature download", () ->
+				BootstrapCache.fetch(LauncherProperties.getBootstrapSig(), BOOTSTRAP_SIG_CACHE_FILE));
+			final StartupGraph.Task<Bootstrap> bluestrapTask = graph.submit("BlueLite bootstrap download", Launcher::getBlueBootstrap);
+			final StartupGraph.Task<Bootstrap> bootstrapTask = graph.submit("bootstrap verification", () ->
+				getBootstrap(bootstrapDocument, signatureDocument), bootstrapDocument, signatureDocument);
+
 			try
 			{
-				bootstrap = getBootstrap();
+				bootstrapTask.get();
 			}
-			catch (IOException | VerificationException | CertificateException | SignatureException | InvalidKeyException | NoSuchAlgorithmException ex)
+			catch (ExecutionException ex)
 			{
-				log.error("error fetching bootstrap", ex);
-				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the bootstrap", ex));
+				Throwable cause = ex.getCause();
+				Throwables.throwIfUnchecked(cause);
+				log.error("error fetching bootstrap", cause);
+				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the bootstrap", cause));
 				return;
 			}
 
 			try
 			{
-				Bootstrap bluestrap = getBlueBootstrap();
-
-				bootstrap = mergeBootstraps(bluestrap, bootstrap);
+				bluestrapTask.get();
 			}
-			catch (IOException | VerificationException | CertificateException | SignatureException | InvalidKeyException | NoSuchAlgorithmException ex)
+			catch (ExecutionException ex)
 			{
-				log.error("error fetching bootstrap", ex);
-				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the bootstrap", ex));
+				Throwable cause = ex.getCause();
+				Throwables.throwIfUnchecked(cause);
+				log.error("error fetching BlueLite bootstrap", cause);
+				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the BlueLite bootstrap", cause));
 				return;
 			}
+
+			final StartupGraph.Task<Bootstrap> resolved = graph.submit("bootstrap resolution", () ->
+				resolveBootstrap(bluestrapTask.get(), bootstrapTask.get()), bootstrapTask, bluestrapTask);
+			final Bootstrap bootstrap = await(resolved);
 			String patchMinor = bootstrap.getPatchMinor();
 
 			SplashScreen.stage(.10, null, "Tidying the cache");
@@ -310,10 +370,9 @@ public class Launcher
 			}
 			if (jvmTooOld)
 			{
-				Bootstrap finalBootstrap = bootstrap;
 				SwingUtilities.invokeLater(() ->
 					new FatalErrorDialog("Your Java installation is too old. RuneLite now requires Java " +
-						finalBootstrap.getRequiredJVMVersion() + " to run. You can get a platform specific version from RuneLite.net," +
+						bootstrap.getRequiredJVMVersion() + " to run. You can get a platform specific version from RuneLite.net," +
 						" or install a newer version of Java.")
 						.addButton("RuneLite.net", () -> LinkBrowser.browse(LauncherProperties.getDownloadLink()))
 						.open());
@@ -321,102 +380,135 @@ public class Launcher
 			}
 
 			// update packr vmargs. The only extra vmargs we need to write to disk are the ones which cannot be set
-			// at runtime, which currently is just the vm errorfile.
-			PackrConfig.updateLauncherArgs(bootstrap, Collections.singleton("-XX:ErrorFile=" + CRASH_FILES.getAbsolutePath()));
+			// at runtime, which currently is just the vm errorfile. This doesn't affect this launch, so it is
+			// done alongside everything else.
+			final StartupGraph.Task<Void> packr = graph.run("packr config", () ->
+				PackrConfig.updateLauncherArgs(bootstrap, Collections.singleton("-XX:ErrorFile=" + CRASH_FILES.getAbsolutePath())), resolved);
 
 			REPO_DIR.mkdirs();
 			CACHE_DIR.mkdirs();
+			UPSTREAM_DIR.mkdirs();
 
-			// Clean out old artifacts from the repository
-			clean(bootstrap.getArtifacts());
-
-			try
-			{
-				download(bootstrap, nodiff);
-			}
-			catch (IOException ex)
+			// packr doesn't let us specify command line arguments
+			final boolean reflection = (nojvm || options.has("nojvm")) && !options.has("nouiscale");
+			final boolean cds = !options.has("nocds");
+			final int instanceCount = options.valueOf(instances);
+			if (instanceCount < 1 || options.valueOf(instanceStagger) < 0)
 			{
-				log.error("unable to download artifacts", ex);
-				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the client", ex));
+				log.error("--instances must be at least 1, and --instance-stagger can't be negative");
 				return;
 			}
+			final Duration stagger = Duration.ofSeconds(options.valueOf(instanceStagger));
+			final List<String> extraInstanceArgs = options.valuesOf(instanceArgs);
 
-			List<File> results = new ArrayList<>();
+			final Collection<String> clientArgs = getClientArgs(options);
 
-			File[] externals = EXTERNALS_DIR.listFiles();
-			if (externals != null)
+			if (log.isDebugEnabled())
 			{
-				results.addAll(Arrays.asList(externals));
+				clientArgs.add("--debug");
 			}
 
-			results.addAll(Arrays.stream(bootstrap.getArtifacts())
-					.map(dep -> new File(REPO_DIR, dep.getName()))
-					.collect(Collectors.toList()));
-
-			String patchName = "";
-			for (File file : results)
+			// If nothing has changed since the last launch, launch the same way again without checking the artifacts
+			final String launchPlanKey = launchPlanKey(bootstrap, args, clientArgs, reflection);
+			final LaunchPlan launchPlan = options.has("verify") ? null : LaunchPlan.load(LAUNCH_PLAN_FILE, launchPlanKey, integrityIndex);
+			if (launchPlan != null)
 			{
-				if (isClientPatch(file.getName()))
+				log.info("Nothing has changed since the last launch, skipping artifact checks");
+				awaitReady(graph, graph.barrier("ready", resolved, packr, splash));
+				SplashScreen.stage(.90, "Starting the client", "");
+				if (!launch(launchPlan.getClasspathFiles(), instanceClientArgs(launchPlan.getClientArgs(), instanceCount, extraInstanceArgs),
+					launchPlan.getJvmArgs(), reflection, cds, stagger))
 				{
-					patchName = file.getName();
-					patchName = patchName.substring("client-patch-".length());
-					patchName = patchName.substring(0, patchName.length() - ".jar".length());
+					// check everything again next time
+					LAUNCH_PLAN_FILE.delete();
 				}
+				return;
 			}
-			if (patchName.equals(patchMinor) && results.stream().anyMatch(s -> isBluePatch(s.getName())))
+
+			// Only one of the client patch and the BlueLite patch is launched, so the other is not downloaded or
+			// verified. It is still kept in the repository in case patchMinor changes back.
+			final Predicate<String> unusedPatch = unusedPatch(EXTERNALS_DIR.list(), bootstrap.getArtifacts(), patchMinor);
+			final Artifact[] artifacts = Arrays.stream(bootstrap.getArtifacts())
+				.filter(artifact -> !unusedPatch.test(artifact.getName()))
+				.toArray(Artifact[]::new);
+
+			final StartupGraph.Task<List<DiffPlanner.Step>> plan = graph.submit("download planning", () ->
+				planDownloads(bootstrap, artifacts, nodiff || !zlibCompatible.get()), resolved, zlibCompatible);
+			// Clean out old artifacts from the repository
+			final StartupGraph.Task<Void> cleaned = graph.submit("clean", () ->
+			{
+				clean(bootstrap, await(plan));
+				return null;
+			}, plan);
+			final StartupGraph.Task<Void> downloaded = graph.submit("download", () ->
+			{
+				download(bootstrap, await(plan), segmented);
+				return null;
+			}, plan, cleaned);
+			final StartupGraph.Task<List<File>> externals = graph.submit("externals scan", () ->
+			{
+				File[] files = EXTERNALS_DIR.listFiles();
+				return files == null ? Collections.<File>emptyList() : Arrays.stream(files)
+					.filter(file -> !unusedPatch.test(file.getName()))
+					.collect(Collectors.toList());
+			}, resolved);
+
+			try
 			{
-				results = results.stream().filter(s -> !isClientPatch(s.getName())).collect(Collectors.toList());
+				await(downloaded);
 			}
-			else
+			catch (IOException ex)
 			{
-				results = results.stream().filter(s -> !isBluePatch(s.getName())).collect(Collectors.toList());
+				log.error("unable to download artifacts", ex);
+				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("downloading the client", ex));
+				return;
 			}
 
 			SplashScreen.stage(.80, null, "Verifying");
+			final StartupGraph.Task<Void> verified = graph.submit("verification", () ->
+			{
+				verifyJarHashes(artifacts);
+				return null;
+			}, downloaded);
 			try
 			{
-				verifyJarHashes(bootstrap.getArtifacts());
+				verified.get();
 			}
-			catch (VerificationException ex)
+			catch (ExecutionException ex)
 			{
-				log.error("Unable to verify artifacts", ex);
-				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("verifying downloaded files", ex));
+				Throwable cause = ex.getCause();
+				Throwables.throwIfUnchecked(cause);
+				log.error("Unable to verify artifacts", cause);
+				SwingUtilities.invokeLater(() -> FatalErrorDialog.showNetErrorWindow("verifying downloaded files", cause));
 				return;
 			}
-
-			final Collection<String> clientArgs = getClientArgs(options);
-
-			if (log.isDebugEnabled())
+			finally
 			{
-				clientArgs.add("--debug");
+				integrityIndex.save();
 			}
 
-			SplashScreen.stage(.90, "Starting the client", "");
+			List<File> results = new ArrayList<>(await(externals));
+			results.addAll(Arrays.stream(artifacts)
+					.map(dep -> new File(REPO_DIR, dep.getName()))
+					.collect(Collectors.toList()));
 
-			// packr doesn't let us specify command line arguments
-			if ((nojvm || options.has("nojvm")) && !options.has("nouiscale"))
+			final List<String> jvmArgs = new ArrayList<>();
+			if (bootstrap.getClientJvm9Arguments() != null)
 			{
-				try
-				{
-					log.info("Using reflection launcher");
-					ReflectionLauncher.launch(results, clientArgs);
-				}
-				catch (MalformedURLException ex)
-				{
-					log.error("unable to launch client", ex);
-				}
+				jvmArgs.addAll(Arrays.asList(bootstrap.getClientJvm9Arguments()));
 			}
-			else
+			jvmArgs.addAll(extraJvmParams);
+
+			// Everything on the classpath was hashed while verifying it, other than the external plugins
+			final Map<File, String> classpathHashes = integrityIndex.hashAll(results);
+
+			awaitReady(graph, graph.barrier("ready", verified, externals, packr, splash));
+			SplashScreen.stage(.90, "Starting the client", "");
+			// The plan is only reused if it launched the client
+			if (launch(results, instanceClientArgs(clientArgs, instanceCount, extraInstanceArgs), jvmArgs, reflection, cds, stagger))
 			{
-				try
-				{
-					log.info("Using JvmLauncher launcher");
-					JvmLauncher.launch(bootstrap, results, clientArgs, extraJvmParams);
-				}
-				catch (IOException ex)
-				{
-					log.error("unable to launch client", ex);
-				}
+				new LaunchPlan(launchPlanKey, results, classpathHashes, clientArgs, jvmArgs).save(LAUNCH_PLAN_FILE);
+				integrityIndex.save();
 			}
 		}
 		catch (Exception e)
@@ -434,66 +526,268 @@ public class Launcher
 		}
 		finally
 		{
+			// the splash must be up before it can be taken down
+			splash.handle((result, ex) -> null).join();
 			SplashScreen.stop();
+			graph.shutdown();
 		}
 	}
 
-	private static void setJvmParams(final Collection<String> params)
+	/**
+	 * Wait for the last task before launching, and log what startup spent its time on
+	 */
+	private static void awaitReady(StartupGraph graph, StartupGraph.Task<Void> ready) throws IOException
 	{
-		for (String param : params)
+		await(ready);
+		graph.logCriticalPath(ready);
+	}
+
+	/**
+	 * Combine the BlueLite and RuneLite bootstraps, and drop the artifacts for other platforms
+	 */
+	private static Bootstrap resolveBootstrap(Bootstrap bluestrap, Bootstrap runelite)
+	{
+		// BlueLite's artifacts and arguments take precedence over RuneLite's
+		Bootstrap bootstrap = new BootstrapResolver()
+			.add(bluestrap)
+			.add(runelite)
+			.resolve();
+
+		// Artifacts for other platforms are never downloaded, verified, kept or put on the classpath
+		bootstrap.setArtifacts(Arrays.stream(bootstrap.getArtifacts())
+			.filter(artifact ->
+			{
+				boolean supported = OS.isSupported(artifact.getPlatform());
+				if (!supported)
+				{
+					log.debug("Skipping {}, which is not for {} {}", artifact.getName(), OS.getOs(), OS.getArch());
+				}
+				return supported;
+			})
+			.toArray(Artifact[]::new));
+		return bootstrap;
+	}
+
+	/**
+	 * Launch a client for each of the client arguments, which all share the verified repository
+	 *
+	 * @return whether any client was started
+	 */
+	private static boolean launch(List<File> classpath, List<Collection<String>> instanceClientArgs, List<String> jvmArgs, boolean reflection,
+		boolean cds, Duration stagger)
+	{
+		final int instances = instanceClientArgs.size();
+		if (reflection && instances == 1)
 		{
-			final String[] split = param.replace("-D", "").split("=");
-			System.setProperty(split[0], split[1]);
+			try
+			{
+				log.info("Using reflection launcher");
+				ReflectionLauncher.launch(classpath, instanceClientArgs.get(0));
+				return true;
+			}
+			catch (MalformedURLException ex)
+			{
+				log.error("unable to launch client", ex);
+				return false;
+			}
+		}
+
+		if (reflection)
+		{
+			log.warn("The reflection launcher can only launch one client, using JvmLauncher for {} clients", instances);
+		}
+		log.info("Using JvmLauncher launcher");
+
+		// Computed at launch rather than stored in the launch plan, so that it follows changes to the
+		// machine or its cgroup limits
+		final List<String> ergonomics = ClientErgonomics.jvmArgs(jvmArgs, instances);
+		int started = 0;
+		for (int i = 0; i < instances; ++i)
+		{
+			if (i > 0)
+			{
+				// Starting every client at once has them all loading classes and compiling at the same time
+				try
+				{
+					Thread.sleep(stagger.toMillis());
+				}
+				catch (InterruptedException ex)
+				{
+					log.warn("Interrupted launching clients, launched {} of {}", i, instances);
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+
+			try
+			{
+				List<String> arguments = new ArrayList<>(jvmArgs);
+				arguments.addAll(ergonomics);
+				if (cds)
+				{
+					// Whether the archive exists yet changes between launches, so this is never part of a launch plan.
+					// Only the first client creates it, so that clients don't write it at the same time.
+					arguments.addAll(ClassDataSharing.jvmArgs(CDS_DIR, classpath, jvmArgs, i == 0));
+				}
+
+				File outputLog = new File(LOGS_DIR, instances == 1 ? "client_output.log" : "client_output_" + (i + 1) + ".log");
+				JvmLauncher.launch(classpath, instanceClientArgs.get(i), arguments, outputLog);
+				++started;
+			}
+			catch (IOException ex)
+			{
+				log.error("unable to launch client {}", i + 1, ex);
+			}
 		}
+		return started > 0;
 	}
 
-	private static Bootstrap getBootstrap() throws IOException, CertificateException, NoSuchAlgorithmException, InvalidKeyException, SignatureException, VerificationException
+	/**
+	 * The client arguments of each client, which are the shared client arguments followed by the client's
+	 * --instanceargs, if it has any
+	 */
+	private static List<Collection<String>> instanceClientArgs(Collection<String> clientArgs, int instances, List<String> instanceArgs)
 	{
-		URL u = new URL(LauncherProperties.getBootstrap());
-		URL signatureUrl = new URL(LauncherProperties.getBootstrapSig());
+		if (instanceArgs.size() > instances)
+		{
+			log.warn("Ignoring --instanceargs past the {} client(s) being launched", instances);
+		}
 
-		URLConnection conn = u.openConnection();
-		URLConnection signatureConn = signatureUrl.openConnection();
+		List<Collection<String>> result = new ArrayList<>(instances);
+		for (int i = 0; i < instances; ++i)
+		{
+			List<String> args = new ArrayList<>(clientArgs);
+			if (i < instanceArgs.size())
+			{
+				args.addAll(Splitter.on(' ').omitEmptyStrings().trimResults().splitToList(instanceArgs.get(i)));
+			}
+			result.add(args);
+		}
+		return result;
+	}
 
-		conn.setRequestProperty("User-Agent", USER_AGENT);
-		signatureConn.setRequestProperty("User-Agent", USER_AGENT);
+	/**
+	 * Digest of everything a launch plan depends on besides the files on its classpath
+	 */
+	private static String launchPlanKey(Bootstrap bootstrap, String[] args, Collection<String> clientArgs, boolean reflection)
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(LauncherProperties.getVersion(), StandardCharsets.UTF_8);
+		hasher.putString(new Gson().toJson(bootstrap), StandardCharsets.UTF_8);
+		for (String arg : args)
+		{
+			hasher.putString(arg, StandardCharsets.UTF_8).putByte((byte) 0);
+		}
+		// The client arguments can also come from RUNELITE_ARGS, which isn't on the command line
+		hasher.putByte((byte) 1);
+		for (String arg : clientArgs)
+		{
+			hasher.putString(arg, StandardCharsets.UTF_8).putByte((byte) 0);
+		}
+		hasher.putBoolean(reflection);
+		hasher.putBoolean(log.isDebugEnabled());
 
-		try (InputStream i = conn.getInputStream();
-			InputStream signatureIn = signatureConn.getInputStream())
+		// An added or removed external plugin changes the classpath without changing any file on it
+		String[] externals = EXTERNALS_DIR.list();
+		if (externals != null)
 		{
-			byte[] bytes = ByteStreams.toByteArray(i);
-			byte[] signature = ByteStreams.toByteArray(signatureIn);
+			Arrays.sort(externals);
+			for (String external : externals)
+			{
+				hasher.putString(external, StandardCharsets.UTF_8).putByte((byte) 0);
+			}
+		}
+		return hasher.hash().toString();
+	}
 
-			Certificate certificate = getCertificate();
-			Signature s = Signature.getInstance("SHA256withRSA");
-			s.initVerify(certificate);
-			s.update(bytes);
+	private static void setJvmParams(final Collection<String> params)
+	{
+		for (String param : params)
+		{
+			final String[] split = param.replace("-D", "").split("=");
+			System.setProperty(split[0], split[1]);
+		}
+	}
 
-			if (!s.verify(signature))
+	private static Bootstrap getBootstrap(Future<BootstrapCache.Document> bootstrapDocument, Future<BootstrapCache.Document> signatureDocument)
+		throws IOException, CertificateException, NoSuchAlgorithmException, InvalidKeyException, SignatureException, VerificationException
+	{
+		BootstrapCache.Document bootstrap;
+		BootstrapCache.Document signature;
+		try
+		{
+			bootstrap = await(bootstrapDocument);
+			signature = await(signatureDocument);
+		}
+		catch (IOException ex)
+		{
+			byte[] bytes = BootstrapCache.loadStale(BOOTSTRAP_CACHE_FILE, BOOTSTRAP_MAX_STALENESS);
+			byte[] sig = BootstrapCache.loadStale(BOOTSTRAP_SIG_CACHE_FILE, BOOTSTRAP_MAX_STALENESS);
+			if (bytes == null || sig == null)
 			{
-				throw new VerificationException("Unable to verify bootstrap signature");
+				throw ex;
 			}
 
-			Gson g = new Gson();
-			return g.fromJson(new InputStreamReader(new ByteArrayInputStream(bytes)), Bootstrap.class);
+			log.warn("Unable to download bootstrap, using cached copy", ex);
+			verifyBootstrap(bytes, sig);
+			return parseBootstrap(bytes);
+		}
+
+		if (bootstrap.isNotModified() && signature.isNotModified())
+		{
+			// the cached copy was verified when it was stored
+			log.debug("Bootstrap not modified");
+		}
+		else
+		{
+			verifyBootstrap(bootstrap.getBytes(), signature.getBytes());
 		}
+
+		BootstrapCache.store(BOOTSTRAP_CACHE_FILE, bootstrap);
+		BootstrapCache.store(BOOTSTRAP_SIG_CACHE_FILE, signature);
+		return parseBootstrap(bootstrap.getBytes());
 	}
 
-	private static Bootstrap getBlueBootstrap() throws IOException, CertificateException, NoSuchAlgorithmException, InvalidKeyException, SignatureException, VerificationException
+	private static void verifyBootstrap(byte[] bytes, byte[] signature) throws CertificateException, NoSuchAlgorithmException, InvalidKeyException, SignatureException, VerificationException
 	{
-		URL u = new URL(BLUELITE_BOOTSTRAP_URL);
+		Certificate certificate = getCertificate();
+		Signature s = Signature.getInstance("SHA256withRSA");
+		s.initVerify(certificate);
+		s.update(bytes);
 
-		URLConnection conn = u.openConnection();
+		if (!s.verify(signature))
+		{
+			throw new VerificationException("Unable to verify bootstrap signature");
+		}
+	}
 
-		conn.setRequestProperty("User-Agent", USER_AGENT);
+	private static Bootstrap parseBootstrap(byte[] bytes)
+	{
+		Gson g = new Gson();
+		return g.fromJson(new InputStreamReader(new ByteArrayInputStream(bytes)), Bootstrap.class);
+	}
 
-		try (InputStream i = conn.getInputStream())
+	private static Bootstrap getBlueBootstrap() throws IOException
+	{
+		BootstrapCache.Document bootstrap;
+		try
+		{
+			bootstrap = BootstrapCache.fetch(BLUELITE_BOOTSTRAP_URL, BLUE_BOOTSTRAP_CACHE_FILE);
+		}
+		catch (IOException ex)
 		{
-			byte[] bytes = ByteStreams.toByteArray(i);
+			byte[] bytes = BootstrapCache.loadStale(BLUE_BOOTSTRAP_CACHE_FILE, BOOTSTRAP_MAX_STALENESS);
+			if (bytes == null)
+			{
+				throw ex;
+			}
 
-			Gson g = new Gson();
-			return g.fromJson(new InputStreamReader(new ByteArrayInputStream(bytes)), Bootstrap.class);
+			log.warn("Unable to download BlueLite bootstrap, using cached copy", ex);
+			return parseBootstrap(bytes);
 		}
+
+		BootstrapCache.store(BLUE_BOOTSTRAP_CACHE_FILE, bootstrap);
+		return parseBootstrap(bootstrap.getBytes());
 	}
 
 	private static Collection<String> getClientArgs(OptionSet options)
@@ -508,62 +802,44 @@ public class Launcher
 			: new ArrayList<>();
 	}
 
-	private static void download(Bootstrap bootstrap, boolean nodiff) throws IOException
+	/**
+	 * Determine which artifacts are out of date, and how each of them will be brought up to date
+	 */
+	private static List<DiffPlanner.Step> planDownloads(Bootstrap bootstrap, Artifact[] artifacts, boolean nodiff) throws IOException
 	{
-		Artifact[] artifacts = bootstrap.getArtifacts();
 		List<Artifact> toDownload = new ArrayList<>(artifacts.length);
-		Map<Artifact, Diff> diffs = new HashMap<>();
-		int totalDownloadBytes = 0;
-		final boolean isCompatible = new DefaultDeflateCompatibilityWindow().isCompatible();
-
-		if (!isCompatible && !nodiff)
-		{
-			log.debug("System zlib is not compatible with archive-patcher; not using diffs");
-			nodiff = true;
-		}
+		// The unfiltered client is kept so that it can be refiltered without downloading it again
+		Map<File, String> hashes = integrityIndex.hashAll(Arrays.stream(artifacts)
+			.flatMap(artifact -> isClient(artifact.getName())
+				? Stream.of(new File(REPO_DIR, artifact.getName()), new File(UPSTREAM_DIR, artifact.getName()))
+				: Stream.of(new File(REPO_DIR, artifact.getName())))
+			.collect(Collectors.toList()));
+		final String removesDigest = removesDigest(bootstrap.getRemoves());
 
 		for (Artifact artifact : artifacts)
 		{
 			File dest = new File(REPO_DIR, artifact.getName());
 
-			String hash;
-			try
-			{
-				hash = hash(dest);
-			}
-			catch (FileNotFoundException ex)
-			{
-				hash = null;
-			}
+			String hash = hashes.get(dest);
 
 			if (isClient(artifact.getName()))
 			{
-				if (CLIENT_HASH_FILE.exists() && CLIENT_REPO_HASH_FILE.exists() && new File(REPO_DIR, artifact.getName()).exists())
+				// The repository copy is only current if it was filtered from this upstream with this removes list
+				if (hash != null
+					&& Objects.equals(readSerial(CLIENT_HASH_FILE), artifact.getHash())
+					&& Objects.equals(readSerial(CLIENT_REPO_HASH_FILE), hash)
+					&& Objects.equals(readSerial(CLIENT_REMOVES_HASH_FILE), removesDigest))
 				{
-					boolean match1;
-					boolean match2;
-					try (FileInputStream fos = new FileInputStream(CLIENT_HASH_FILE))
-					{
-						byte[] buffer = fos.readAllBytes();
-						hash = new String(buffer, StandardCharsets.UTF_8);
-
-						match1 = Objects.equals(hash, artifact.getHash());
-					}
-
-					try (FileInputStream fos = new FileInputStream(CLIENT_REPO_HASH_FILE))
-					{
-						byte[] buffer = fos.readAllBytes();
-						hash = new String(buffer, StandardCharsets.UTF_8);
-						String hash1 = hash(new File(REPO_DIR, artifact.getName()));
-
-						match2 = Objects.equals(hash, hash1);
-					}
+					log.debug("Hash for {} up to date", artifact.getName());
+					continue;
+				}
 
-					if (match1 && match2)
-					{
-						log.debug("Hash for {} up to date", artifact.getName());
-						continue;
-					}
+				File upstream = new File(UPSTREAM_DIR, artifact.getName());
+				if (Objects.equals(hashes.get(upstream), artifact.getHash()))
+				{
+					log.debug("Refiltering {} from {}", artifact.getName(), upstream);
+					filterClient(artifact, upstream, dest, bootstrap.getRemoves());
+					continue;
 				}
 			}
 			else if (Objects.equals(hash, artifact.getHash()))
@@ -572,201 +848,375 @@ public class Launcher
 				continue;
 			}
 
-			int downloadSize = artifact.getSize();
+			toDownload.add(artifact);
+		}
 
-			// See if there is a diff available
-			if (!nodiff && artifact.getDiffs() != null)
-			{
-				for (Diff diff : artifact.getDiffs())
-				{
-					File old = new File(REPO_DIR, diff.getFrom());
+		// Only the bases of diffs for out of date artifacts need hashing
+		Map<String, String> localHashes = new HashMap<>();
+		if (!nodiff)
+		{
+			integrityIndex.hashAll(toDownload.stream()
+				.filter(artifact -> artifact.getDiffs() != null)
+				.flatMap(artifact -> Arrays.stream(artifact.getDiffs()))
+				.map(diff -> diffBase(diff.getFrom()))
+				.collect(Collectors.toList()))
+				.forEach((file, hash) -> localHashes.put(file.getName(), hash));
+		}
 
-					String oldhash;
-					try
-					{
-						oldhash = hash(old);
-					}
-					catch (FileNotFoundException ex)
-					{
-						oldhash = null;
-					}
+		final double downloadRate = transferStats.getDownloadRate();
+		final double applyRate = transferStats.getApplyRate();
+		log.debug("Planning downloads with download rate {} KiB/s, apply rate {} KiB/s", (long) downloadRate / 1024, (long) applyRate / 1024);
 
-					// Check if old file is valid
-					if (diff.getFromHash().equals(oldhash))
-					{
-						diffs.put(artifact, diff);
-						downloadSize = diff.getSize();
-					}
-				}
+		DiffPlanner planner = new DiffPlanner(downloadRate, applyRate);
+		List<DiffPlanner.Step> plan = planner.plan(toDownload, localHashes, !nodiff);
+		for (DiffPlanner.Step step : plan)
+		{
+			double fullCost = planner.fullCost(step.getArtifact());
+			if (step.getDiff() == null)
+			{
+				log.debug("Planned full download of {} ({} bytes, est. {}s)", step.getArtifact().getName(), step.getDownloadSize(),
+					String.format("%.2f", fullCost));
+			}
+			else
+			{
+				log.debug("Planned {} via {} from {} ({} bytes, wave {}, est. {}s instead of {}s in full)", step.getArtifact().getName(),
+					step.getDiff().getName(), step.getDiff().getFrom(), step.getDownloadSize(), step.getWave(),
+					String.format("%.2f", step.getCost()), String.format("%.2f", fullCost));
 			}
-
-			toDownload.add(artifact);
-			totalDownloadBytes += downloadSize;
 		}
+		return plan;
+	}
 
+	private static void download(Bootstrap bootstrap, List<DiffPlanner.Step> plan, boolean segmented) throws IOException
+	{
 		final double START_PROGRESS = .15;
-		int downloaded = 0;
 		SplashScreen.stage(START_PROGRESS, "Downloading", "");
 
-		for (Artifact artifact : toDownload)
+		if (plan.isEmpty())
 		{
-			File dest = new File(REPO_DIR, artifact.getName());
-			final int total = downloaded;
+			return;
+		}
 
-			// Check if there is a diff we can download instead
-			Diff diff = diffs.get(artifact);
-			if (diff != null)
-			{
-				log.debug("Downloading diff {}", diff.getName());
+		// Start the largest transfers first so that they are not left running alone at the end. Chained diffs
+		// go after the steps they wait for, so that a waiting step never holds up its own base.
+		List<DiffPlanner.Step> steps = new ArrayList<>(plan);
+		steps.sort(Comparator.comparingInt(DiffPlanner.Step::getWave)
+			.thenComparing(Comparator.comparingInt(DiffPlanner.Step::getDownloadSize).reversed()));
 
-				try
+		final DownloadProgress progress = new DownloadProgress(START_PROGRESS, .80, steps.stream().mapToInt(DiffPlanner.Step::getDownloadSize).sum());
+		final DownloadJournal journal = DownloadJournal.load(DOWNLOAD_JOURNAL_FILE);
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_CONCURRENT_DOWNLOADS, steps.size()), new ThreadFactoryBuilder()
+			.setNameFormat("Downloader-%d")
+			.setDaemon(true)
+			.build());
+
+		try
+		{
+			Map<Artifact, Future<?>> futures = new HashMap<>();
+			for (DiffPlanner.Step step : steps)
+			{
+				Future<?> base = step.getBase() != null ? futures.get(step.getBase()) : null;
+				futures.put(step.getArtifact(), executor.submit(() ->
 				{
-					final int totalBytes = totalDownloadBytes;
-					final byte[] patch = download(diff.getPath(), diff.getHash(), (completed) ->
-						SplashScreen.stage(START_PROGRESS, .80, null, diff.getName(), total + completed, totalBytes, true));
-					downloaded += diff.getSize();
-					File old = new File(REPO_DIR, diff.getFrom());
-					try (InputStream patchStream = new GZIPInputStream(new ByteArrayInputStream(patch));
-						FileOutputStream fout = new FileOutputStream(dest))
+					if (base != null)
 					{
-						new FileByFileV1DeltaApplier().applyDelta(old, patchStream, fout);
+						try
+						{
+							await(base);
+						}
+						catch (IOException ex)
+						{
+							// the patch won't verify against a bad base, and then the full artifact is downloaded instead
+							log.debug("base {} of {} failed", step.getBase().getName(), step.getArtifact().getName(), ex);
+						}
 					}
+					downloadArtifact(bootstrap, step.getArtifact(), step.getDiff(), progress, journal, segmented);
+					return null;
+				}));
+			}
 
-					continue;
-				}
-				catch (IOException | VerificationException e)
-				{
-					log.warn("unable to download patch {}", diff.getName(), e);
-					// Fall through and try downloading the full artifact
-
-					// Adjust the download size for the difference
-					totalDownloadBytes -= diff.getSize();
-					totalDownloadBytes += artifact.getSize();
-				}
+			for (Future<?> future : futures.values())
+			{
+				await(future);
 			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+			transferStats.save();
+		}
+	}
 
-			log.debug("Downloading {}", artifact.getName());
+	private static void downloadArtifact(Bootstrap bootstrap, Artifact artifact, Diff diff, DownloadProgress progress, DownloadJournal journal, boolean segmented) throws IOException
+	{
+		File dest = new File(REPO_DIR, artifact.getName());
 
+		// Check if there is a diff we can download instead
+		if (diff != null)
+		{
+			log.debug("Downloading diff {}", diff.getName());
+
+			DownloadProgress.Transfer transfer = progress.transfer(diff.getName());
+			// The patched client is the unfiltered original, which is filtered on its way into the repository
+			File patched = isClient(artifact.getName()) ? new File(UPSTREAM_DIR, artifact.getName()) : dest;
+			File tmp = tempFile(patched);
 			try
 			{
-				final int totalBytes = totalDownloadBytes;
-				final byte[] jar = download(artifact.getPath(), artifact.getHash(), (completed) ->
-					SplashScreen.stage(START_PROGRESS, .80, null, artifact.getName(), total + completed, totalBytes, true));
-				downloaded += artifact.getSize();
-				String[] blacklist = bootstrap.getRemoves();
-				try (FileOutputStream fout = new FileOutputStream(dest))
+				// the patched output replaces any partial download of the full artifact
+				journal.remove(tmp);
+				applyDiff(diff, artifact.getHash(), tmp, transfer);
+				AtomicFiles.move(tmp, patched);
+				integrityIndex.record(patched, artifact.getHash());
+				if (patched != dest)
 				{
-					if (isClient(artifact.getName()))
-					{
-						ByteArrayInputStream bais = new ByteArrayInputStream(jar);
-						JarInputStream jis = new JarInputStream(bais);
-						JarOutputStream jos = new JarOutputStream(fout);
+					filterClient(artifact, patched, dest, bootstrap.getRemoves());
+				}
 
-						JarEntry je = jis.getNextJarEntry();
-						byte[] buf = new byte[16384];
-						while (je != null)
-						{
-							JarEntry finalJe = je;
-							if (Arrays.stream(blacklist).noneMatch(s -> finalJe.getName().startsWith(s)))
-							{
-								jos.putNextEntry(je);
-
-								int read = jis.read(buf);
-								while (read != -1)
-								{
-									jos.write(buf, 0, read);
-									read = jis.read(buf);
-								}
-							}
-
-							je = jis.getNextJarEntry();
-						}
+				return;
+			}
+			catch (IOException | VerificationException e)
+			{
+				log.warn("unable to download patch {}", diff.getName(), e);
+				tmp.delete();
+				// Fall through and try downloading the full artifact
 
-						bais.close();
-						jis.close();
-						jos.close();
-						fout.close();
+				// Adjust the download size for the difference
+				transfer.rollback();
+				progress.adjustTotal(artifact.getSize() - diff.getSize());
+			}
+		}
 
-						FileOutputStream foutHash = new FileOutputStream(CLIENT_HASH_FILE);
-						foutHash.write(artifact.getHash().getBytes(StandardCharsets.UTF_8));
-						foutHash.close();
+		log.debug("Downloading {}", artifact.getName());
 
-						String hash = hash(dest);
-						FileOutputStream foutHash1 = new FileOutputStream(CLIENT_REPO_HASH_FILE);
-						foutHash1.write(hash.getBytes(StandardCharsets.UTF_8));
-						foutHash1.close();
-					}
-					else
-					{
-						fout.write(jar);
-					}
-				}
+		try
+		{
+			DownloadProgress.Transfer transfer = progress.transfer(artifact.getName());
+			if (isClient(artifact.getName()))
+			{
+				// The client is filtered on its way into the repository, so keep the verified original out of it
+				File upstream = new File(UPSTREAM_DIR, artifact.getName());
+				fetchArtifact(artifact, upstream, transfer, journal, segmented);
+				integrityIndex.record(upstream, artifact.getHash());
+				filterClient(artifact, upstream, dest, bootstrap.getRemoves());
 			}
-			catch (VerificationException e)
+			else
 			{
-				log.warn("unable to verify jar {}", artifact.getName(), e);
+				fetchArtifact(artifact, dest, transfer, journal, segmented);
+				integrityIndex.record(dest, artifact.getHash());
 			}
 		}
+		catch (VerificationException e)
+		{
+			log.warn("unable to verify jar {}", artifact.getName(), e);
+		}
+	}
+
+	/**
+	 * Streams a patch from the network straight into the delta applier, so the patch is never held in memory
+	 * or on disk. Both the patch and the patched output are hashed on the way through.
+	 */
+	private static void applyDiff(Diff diff, String expectedHash, File out, IntConsumer progress) throws IOException, VerificationException
+	{
+		File old = diffBase(diff.getFrom());
+		long start = System.nanoTime();
+		HttpResponse<InputStream> response = LauncherHttpClient.sendChecked(LauncherHttpClient.request(diff.getPath()).build());
+		long connected = System.nanoTime();
+		ProgressInputStream networkIn;
+		HashingInputStream patchIn;
+		HashingOutputStream patchedOut;
+		try (InputStream in = response.body();
+			OutputStream fout = new BufferedOutputStream(new FileOutputStream(out), BUFFER_SIZE))
+		{
+			networkIn = new ProgressInputStream(in, progress);
+			patchIn = new HashingInputStream(Hashing.sha256(), networkIn);
+			patchedOut = new HashingOutputStream(Hashing.sha256(), fout);
+			new FileByFileV1DeltaApplier().applyDelta(old, new GZIPInputStream(patchIn, BUFFER_SIZE), patchedOut);
+			// the applier can stop before the gzip trailer, but all of the patch must be hashed
+			ByteStreams.exhaust(patchIn);
+		}
+
+		// Patching runs on this thread between reads, so the time not spent waiting on the network was spent applying
+		long elapsed = System.nanoTime() - start;
+		long waiting = Math.min(connected - start + networkIn.getReadNanos(), elapsed);
+		transferStats.recordDownload(networkIn.getBytesRead(), waiting);
+		transferStats.recordApply(out.length(), elapsed - waiting);
+
+		String patchHash = patchIn.hash().toString();
+		if (!diff.getHash().equals(patchHash))
+		{
+			throw new VerificationException("Unable to verify resource " + diff.getPath() + " - expected " + diff.getHash() + " got " + patchHash);
+		}
+
+		String patchedHash = patchedOut.hash().toString();
+		if (!expectedHash.equals(patchedHash))
+		{
+			throw new VerificationException("Patching " + diff.getFrom() + " with " + diff.getName() + " produced " + patchedHash + " instead of " + expectedHash);
+		}
 	}
 
-	private static Bootstrap mergeBootstraps(Bootstrap b1, Bootstrap b2)
+	private static void fetchArtifact(Artifact artifact, File dest, IntConsumer progress, DownloadJournal journal, boolean segmented) throws IOException, VerificationException
 	{
-		Bootstrap breturn = new Bootstrap();
+		if (segmented && artifact.getSize() >= SEGMENTED_THRESHOLD)
+		{
+			downloadSegmented(artifact.getPath(), artifact.getHash(), artifact.getSize(), dest, progress, journal);
+		}
+		else
+		{
+			download(artifact.getPath(), artifact.getHash(), artifact.getSize(), dest, progress, journal);
+		}
+	}
+
+	/**
+	 * The file a diff from {@code name} applies to. The client in the repository has been filtered, so diffs
+	 * from the client apply to its unfiltered original instead.
+	 */
+	private static File diffBase(String name)
+	{
+		return isClient(name) ? new File(UPSTREAM_DIR, name) : new File(REPO_DIR, name);
+	}
+
+	/**
+	 * Filter the removed classes out of the verified upstream client into the repository, and record which
+	 * upstream and removes list the repository copy was made from
+	 */
+	private static void filterClient(Artifact artifact, File upstream, File dest, String[] removes) throws IOException
+	{
+		// Invalidate the old state first, so a partially written client is never considered current
+		CLIENT_REPO_HASH_FILE.delete();
+
+		PrefixTrie removed = new PrefixTrie(removes);
+		Predicate<String> keep = name -> !removed.matches(name);
+		File tmp = tempFile(dest);
+		try
+		{
+			try
+			{
+				JarFilter.filter(upstream, tmp, keep);
+			}
+			catch (ZipException ex)
+			{
+				log.debug("unable to copy entries of {} directly, recompressing them instead", upstream, ex);
+				filterJarStream(upstream, tmp, keep);
+			}
+		}
+		catch (IOException e)
+		{
+			tmp.delete();
+			throw e;
+		}
+		AtomicFiles.move(tmp, dest);
 
-		breturn.setPatchMinor(shallowConcat(b1.getPatchMinor(), b2.getPatchMinor()));
-		breturn.setRequiredJVMVersion(shallowConcat(b1.getRequiredJVMVersion(), b2.getRequiredJVMVersion()));
-		breturn.setRequiredLauncherVersion(shallowConcat(b1.getRequiredLauncherVersion(), b2.getRequiredLauncherVersion()));
+		writeSerial(CLIENT_HASH_FILE, artifact.getHash());
+		writeSerial(CLIENT_REMOVES_HASH_FILE, removesDigest(removes));
+		writeSerial(CLIENT_REPO_HASH_FILE, integrityIndex.hash(dest));
+	}
 
-		breturn.setArtifacts(shallowCopyArtifact(b1.getArtifacts(), b2.getArtifacts()));
-		breturn.setClientJvm9Arguments(shallowCopyString(b1.getClientJvm9Arguments(), b2.getClientJvm9Arguments()));
-		breturn.setLauncherJvm11Arguments(shallowCopyString(b1.getLauncherJvm11Arguments(), b2.getLauncherJvm11Arguments()));
-		breturn.setLauncherJvm11MacArguments(shallowCopyString(b1.getLauncherJvm11MacArguments(), b2.getLauncherJvm11MacArguments()));
-		breturn.setLauncherJvm11WindowsArguments(shallowCopyString(b1.getLauncherJvm11WindowsArguments(), b2.getLauncherJvm11WindowsArguments()));
-		breturn.setRemoves(shallowCopyString(b1.getRemoves(), b2.getRemoves()));
-		return breturn;
+	/**
+	 * Digest of a removes list which doesn't depend on the order or repetition of its prefixes
+	 */
+	private static String removesDigest(String[] removes)
+	{
+		String joined = removes == null ? "" : Arrays.stream(removes)
+			.sorted()
+			.distinct()
+			.collect(Collectors.joining("\n"));
+		return Hashing.sha256().hashString(joined, StandardCharsets.UTF_8).toString();
 	}
 
-	private static String[] shallowCopyString(String[] first, String[] second)
+	private static String readSerial(File file) throws IOException
 	{
-		if (first == null)
+		if (!file.exists())
 		{
-			return second;
+			return null;
 		}
-		else if (second == null)
+
+		try (FileInputStream fin = new FileInputStream(file))
 		{
-			return first;
+			return new String(fin.readAllBytes(), StandardCharsets.UTF_8);
 		}
-		String[] both = Arrays.copyOf(first, first.length + second.length);
-		System.arraycopy(second, 0, both, first.length, second.length);
-		return both;
 	}
 
-	private static Artifact[] shallowCopyArtifact(Artifact[] first, Artifact[] second)
+	private static void writeSerial(File file, String value) throws IOException
 	{
-		if (first == null)
+		try (FileOutputStream fout = new FileOutputStream(file))
 		{
-			return second;
+			fout.write(value.getBytes(StandardCharsets.UTF_8));
 		}
-		else if (second == null)
+	}
+
+	private static void filterJarStream(File upstream, File out, Predicate<String> keep) throws IOException
+	{
+		try (JarInputStream jis = new JarInputStream(new BufferedInputStream(new FileInputStream(upstream)));
+			JarOutputStream jos = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(out))))
 		{
-			return first;
+			JarEntry je = jis.getNextJarEntry();
+			byte[] buf = new byte[16384];
+			while (je != null)
+			{
+				if (keep.test(je.getName()))
+				{
+					jos.putNextEntry(je);
+
+					int read = jis.read(buf);
+					while (read != -1)
+					{
+						jos.write(buf, 0, read);
+						read = jis.read(buf);
+					}
+				}
+
+				je = jis.getNextJarEntry();
+			}
 		}
-		Artifact[] both = Arrays.copyOf(first, first.length + second.length);
-		System.arraycopy(second, 0, both, first.length, second.length);
-		return both;
 	}
 
-	private static String shallowConcat(String s1, String s2)
+	/**
+	 * Temporary file for writing {@code dest}, which lives next to it so that it can be atomically moved into place
+	 */
+	private static File tempFile(File dest)
 	{
-		if (s1 == null)
+		return new File(dest.getParentFile(), dest.getName() + ".tmp");
+	}
+
+	/**
+	 * The BlueLite patch replaces the client patch when it is built for the same patch version, otherwise
+	 * the client patch is used. Either patch can also come from the external plugins, which are looked at
+	 * first so that the bootstrap's client patch takes precedence.
+	 *
+	 * @param externals names of the files in the external plugins directory, or null if there are none
+	 * @return which of the two patch jars won't be launched
+	 */
+	private static Predicate<String> unusedPatch(String[] externals, Artifact[] artifacts, String patchMinor)
+	{
+		List<String> names = new ArrayList<>();
+		if (externals != null)
+		{
+			names.addAll(Arrays.asList(externals));
+		}
+		for (Artifact artifact : artifacts)
+		{
+			names.add(artifact.getName());
+		}
+
+		String patchName = "";
+		boolean hasBluePatch = false;
+		for (String name : names)
 		{
-			return s2;
+			if (isClientPatch(name))
+			{
+				patchName = name.substring("client-patch-".length(), name.length() - ".jar".length());
+			}
+			else if (isBluePatch(name))
+			{
+				hasBluePatch = true;
+			}
 		}
-		if (s2 == null)
+
+		if (patchName.equals(patchMinor) && hasBluePatch)
 		{
-			return s1;
+			return Launcher::isClientPatch;
 		}
-		return s1 + s2;
+		return Launcher::isBluePatch;
 	}
 
 	private static boolean isPlugins(String name)
@@ -789,32 +1239,46 @@ public class Launcher
 		return name.matches("^client-([0-9]*\\.)*[0-9]*\\.jar$");
 	}
 
-	private static void clean(Artifact[] artifacts)
+	private static void clean(Bootstrap bootstrap, List<DiffPlanner.Step> plan)
 	{
-		File[] existingFiles = REPO_DIR.listFiles();
-
-		if (existingFiles == null)
+		Set<String> bases = new HashSet<>();
+		for (DiffPlanner.Step step : plan)
 		{
-			return;
+			// Keep around the old files which the planned diffs are from
+			if (step.getDiff() != null)
+			{
+				bases.add(step.getDiff().getFrom());
+			}
 		}
 
-		Set<String> artifactNames = new HashSet<>();
-		for (Artifact artifact : artifacts)
+		// Only the upstream of the current client is worth keeping for refiltering, and an old one only as a diff base
+		deleteExcept(UPSTREAM_DIR, name -> isClient(artifactName(name))
+			&& (bootstrap.getArtifact(artifactName(name)) != null || bases.contains(name)));
+		// Keep partial downloads around so they can be resumed
+		deleteExcept(REPO_DIR, name -> bootstrap.getArtifact(artifactName(name)) != null || bases.contains(name));
+	}
+
+	/**
+	 * @return the name of the artifact a file in the repository is for, which is its own name unless it is a
+	 * partial download
+	 */
+	private static String artifactName(String fileName)
+	{
+		return fileName.endsWith(".tmp") ? fileName.substring(0, fileName.length() - ".tmp".length()) : fileName;
+	}
+
+	private static void deleteExcept(File dir, Predicate<String> keep)
+	{
+		File[] existingFiles = dir.listFiles();
+
+		if (existingFiles == null)
 		{
-			artifactNames.add(artifact.getName());
-			if (artifact.getDiffs() != null)
-			{
-				// Keep around the old files which diffs are from
-				for (Diff diff : artifact.getDiffs())
-				{
-					artifactNames.add(diff.getFrom());
-				}
-			}
+			return;
 		}
 
 		for (File file : existingFiles)
 		{
-			if (file.isFile() && !artifactNames.contains(file.getName()))
+			if (file.isFile() && !keep.test(file.getName()))
 			{
 				if (file.delete())
 				{
@@ -830,6 +1294,19 @@ public class Launcher
 
 	private static void verifyJarHashes(Artifact[] artifacts) throws VerificationException
 	{
+		Map<File, String> hashes;
+		try
+		{
+			hashes = integrityIndex.hashAll(Arrays.stream(artifacts)
+				.filter(artifact -> !isClient(artifact.getName()))
+				.map(artifact -> new File(REPO_DIR, artifact.getName()))
+				.collect(Collectors.toList()));
+		}
+		catch (IOException e)
+		{
+			throw new VerificationException("unable to hash file", e);
+		}
+
 		for (Artifact artifact : artifacts)
 		{
 			String expectedHash = artifact.getHash();
@@ -846,7 +1323,7 @@ public class Launcher
 				}
 				else
 				{
-					fileHash = hash(new File(REPO_DIR, artifact.getName()));
+					fileHash = hashes.getOrDefault(new File(REPO_DIR, artifact.getName()), "");
 				}
 			}
 			catch (IOException e)
@@ -864,12 +1341,6 @@ public class Launcher
 		}
 	}
 
-	private static String hash(File file) throws IOException
-	{
-		HashFunction sha256 = Hashing.sha256();
-		return Files.asByteSource(file).hash(sha256).toString();
-	}
-
 	private static Certificate getCertificate() throws CertificateException
 	{
 		CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
@@ -928,44 +1399,369 @@ public class Launcher
 		});
 	}
 
-	private static byte[] download(String path, String hash, IntConsumer progress) throws IOException, VerificationException
+	/**
+	 * Downloads {@code path} into {@code dest}. The data is streamed to a temporary file next to {@code dest}
+	 * while being hashed, and is only moved into place once the hash has been verified. If a previous
+	 * attempt was interrupted, the download is resumed from where it left off.
+	 */
+	private static void download(String path, String hash, int size, File dest, IntConsumer progress, DownloadJournal journal) throws IOException, VerificationException
 	{
-		HashFunction hashFunction = Hashing.sha256();
-		Hasher hasher = hashFunction.newHasher();
-		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		File tmp = tempFile(dest);
+		Hasher hasher = Hashing.sha256().newHasher();
+
+		// See if a previous attempt left a usable partial file behind
+		long offset = 0;
+		DownloadJournal.Entry entry = journal.get(tmp);
+		if (entry != null && path.equals(entry.getUrl()) && hash.equals(entry.getHash())
+			&& entry.getReceived() > 0 && tmp.length() >= entry.getReceived())
+		{
+			offset = entry.getReceived();
+			hashPrefix(tmp, offset, hasher);
+		}
+
+		HttpRequest.Builder request = LauncherHttpClient.request(path);
+		if (offset > 0)
+		{
+			request.header("Range", "bytes=" + offset + "-");
+			// only resume if the resource hasn't changed, otherwise the server sends all of it
+			String validator = entry.getEtag() != null ? entry.getEtag() : entry.getLastModified();
+			if (validator != null)
+			{
+				request.header("If-Range", validator);
+			}
+		}
+
+		long start = System.nanoTime();
+		HttpResponse<InputStream> response = LauncherHttpClient.send(request.build());
+		int code = response.statusCode();
+		if (code >= 400)
+		{
+			response.body().close();
+			if (offset > 0)
+			{
+				log.debug("Unable to resume {} - HTTP {}, restarting", path, code);
+				journal.remove(tmp);
+				download(path, hash, size, dest, progress, journal);
+				return;
+			}
+			throw new IOException("Unable to download " + path + " - HTTP " + code);
+		}
 
-		URL url = new URL(path);
-		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-		conn.setRequestProperty("User-Agent", USER_AGENT);
-		conn.getResponseCode();
+		HttpHeaders headers = response.headers();
+		if (offset > 0)
+		{
+			if (code == HTTP_PARTIAL && isRangeFrom(headers.firstValue("Content-Range").orElse(null), offset))
+			{
+				log.debug("Resuming download of {} from byte {}", path, offset);
+			}
+			else
+			{
+				log.debug("Server did not resume {}, restarting from the beginning", path);
+				offset = 0;
+				hasher = Hashing.sha256().newHasher();
+			}
+		}
 
-		InputStream err = conn.getErrorStream();
-		if (err != null)
+		String etag = headers.firstValue("ETag").orElse(null);
+		if (etag != null && etag.startsWith("W/"))
 		{
-			err.close();
-			throw new IOException("Unable to download " + path + " - " + conn.getResponseMessage());
+			// weak validators can't be used with If-Range
+			etag = null;
+		}
+		String lastModified = headers.firstValue("Last-Modified").orElse(null);
+		if (offset > 0 && etag == null && lastModified == null)
+		{
+			etag = entry.getEtag();
+			lastModified = entry.getLastModified();
 		}
 
-		int downloaded = 0;
-		try (InputStream in = conn.getInputStream())
+		long contentLength = headers.firstValueAsLong("Content-Length").orElse(-1);
+		long downloaded = offset;
+		long journaled = offset;
+		try (InputStream in = response.body();
+			RandomAccessFile out = new RandomAccessFile(tmp, "rw"))
 		{
+			// reserve the space up front, the length is trimmed to what was actually received afterwards
+			if (out.length() < size)
+			{
+				out.setLength(size);
+			}
+			out.seek(offset);
+
 			int i;
-			byte[] buffer = new byte[1024 * 1024];
+			byte[] buffer = new byte[BUFFER_SIZE];
 			while ((i = in.read(buffer)) != -1)
 			{
-				byteArrayOutputStream.write(buffer, 0, i);
+				out.write(buffer, 0, i);
 				hasher.putBytes(buffer, 0, i);
 				downloaded += i;
-				progress.accept(downloaded);
+				progress.accept((int) downloaded);
+
+				if (downloaded - journaled >= JOURNAL_INTERVAL)
+				{
+					journal.update(tmp, new DownloadJournal.Entry(path, hash, downloaded, etag, lastModified));
+					journaled = downloaded;
+				}
+			}
+
+			// a dropped connection can look like a normal end of stream
+			if (contentLength != -1 && downloaded != offset + contentLength)
+			{
+				throw new IOException("Connection closed after " + downloaded + " bytes of " + path);
 			}
+
+			out.setLength(downloaded);
+		}
+		catch (IOException ex)
+		{
+			// keep the partial file so the next attempt can pick up where this one left off
+			if (downloaded > 0)
+			{
+				journal.update(tmp, new DownloadJournal.Entry(path, hash, downloaded, etag, lastModified));
+			}
+			throw ex;
 		}
 
+		journal.remove(tmp);
+		transferStats.recordDownload(downloaded - offset, System.nanoTime() - start);
+
 		HashCode hashCode = hasher.hash();
 		if (!hash.equals(hashCode.toString()))
 		{
+			tmp.delete();
+			if (offset > 0)
+			{
+				log.warn("Resumed download of {} failed verification, restarting", path);
+				download(path, hash, size, dest, progress, journal);
+				return;
+			}
 			throw new VerificationException("Unable to verify resource " + path + " - expected " + hash + " got " + hashCode.toString());
 		}
 
-		return byteArrayOutputStream.toByteArray();
+		AtomicFiles.move(tmp, dest);
+	}
+
+	/**
+	 * Downloads {@code path} into {@code dest} over several concurrent connections, each fetching one byte range
+	 * of the file. Falls back to a single stream if the server does not support range requests.
+	 */
+	private static void downloadSegmented(String path, String hash, int size, File dest, IntConsumer progress, DownloadJournal journal) throws IOException, VerificationException
+	{
+		final long segmentSize = (size + SEGMENTS - 1) / SEGMENTS;
+		final long startTime = System.nanoTime();
+
+		// The first segment doubles as a probe for range support
+		HttpResponse<InputStream> first = LauncherHttpClient.sendChecked(rangeRequest(path, 0, segmentSize - 1));
+		if (first.statusCode() != HTTP_PARTIAL
+			|| !("bytes 0-" + (segmentSize - 1) + "/" + size).equals(first.headers().firstValue("Content-Range").orElse(null)))
+		{
+			log.debug("Server does not support ranges for {}, using a single stream", path);
+			first.body().close();
+			download(path, hash, size, dest, progress, journal);
+			return;
+		}
+
+		log.debug("Downloading {} in {} segments", path, SEGMENTS);
+
+		File tmp = tempFile(dest);
+		// the segments overwrite any partial single stream download
+		journal.remove(tmp);
+
+		// the time each connection spent on its segment, summed
+		final AtomicLong connectionNanos = new AtomicLong();
+		final long[] downloaded = {0};
+		final IntConsumer segmentProgress = bytes ->
+		{
+			synchronized (downloaded)
+			{
+				downloaded[0] += bytes;
+				progress.accept((int) downloaded[0]);
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(SEGMENTS - 1, new ThreadFactoryBuilder()
+			.setNameFormat("Segment downloader-%d")
+			.setDaemon(true)
+			.build());
+		try (RandomAccessFile out = new RandomAccessFile(tmp, "rw"))
+		{
+			out.setLength(size);
+			FileChannel channel = out.getChannel();
+
+			List<Future<?>> futures = new ArrayList<>(SEGMENTS - 1);
+			for (int i = 1; i < SEGMENTS; ++i)
+			{
+				final long start = i * segmentSize;
+				final long end = Math.min(start + segmentSize, size) - 1;
+				if (start > end)
+				{
+					break;
+				}
+
+				futures.add(executor.submit(() ->
+				{
+					long segmentStart = System.nanoTime();
+					HttpResponse<InputStream> response = LauncherHttpClient.sendChecked(rangeRequest(path, start, end));
+					if (response.statusCode() != HTTP_PARTIAL
+						|| !isRangeFrom(response.headers().firstValue("Content-Range").orElse(null), start))
+					{
+						response.body().close();
+						throw new IOException("Unexpected response to range request for " + path + " - HTTP " + response.statusCode());
+					}
+					writeSegment(response, channel, start, end, segmentProgress);
+					connectionNanos.addAndGet(System.nanoTime() - segmentStart);
+					return null;
+				}));
+			}
+
+			writeSegment(first, channel, 0, segmentSize - 1, segmentProgress);
+			connectionNanos.addAndGet(System.nanoTime() - startTime);
+
+			for (Future<?> future : futures)
+			{
+				await(future);
+			}
+		}
+		catch (IOException ex)
+		{
+			tmp.delete();
+			throw ex;
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		// The planner estimates single streams, so this records the average rate of one connection rather than
+		// the combined rate of all of them
+		transferStats.recordDownload(size, connectionNanos.get());
+
+		// The segments arrive out of order, so the file can only be hashed once it is complete
+		String fileHash = IntegrityIndex.sha256(tmp);
+		if (!hash.equals(fileHash))
+		{
+			tmp.delete();
+			throw new VerificationException("Unable to verify resource " + path + " - expected " + hash + " got " + fileHash);
+		}
+
+		AtomicFiles.move(tmp, dest);
+	}
+
+	private static HttpRequest rangeRequest(String path, long start, long end) throws IOException
+	{
+		return LauncherHttpClient.request(path)
+			// each segment needs its own connection, rather than being multiplexed onto one HTTP/2 connection
+			.version(HttpClient.Version.HTTP_1_1)
+			.header("Range", "bytes=" + start + "-" + end)
+			.build();
+	}
+
+	private static void writeSegment(HttpResponse<InputStream> response, FileChannel channel, long start, long end, IntConsumer progress) throws IOException
+	{
+		long position = start;
+		try (InputStream in = response.body())
+		{
+			int i;
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (position <= end && (i = in.read(buffer, 0, (int) Math.min(buffer.length, end - position + 1))) != -1)
+			{
+				ByteBuffer buf = ByteBuffer.wrap(buffer, 0, i);
+				while (buf.hasRemaining())
+				{
+					position += channel.write(buf, position);
+				}
+				progress.accept(i);
+			}
+		}
+
+		if (position != end + 1)
+		{
+			throw new IOException("Connection closed after " + (position - start) + " bytes of segment " + start + "-" + end + " of " + response.uri());
+		}
+	}
+
+	/**
+	 * Wait for a task which does I/O, rethrowing its exception
+	 */
+	private static <T> T await(Future<T> future) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException)
+			{
+				throw (IOException) cause;
+			}
+			Throwables.throwIfUnchecked(cause);
+			throw new RuntimeException(cause);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for download");
+		}
+	}
+
+	private static void hashPrefix(File file, long length, Hasher hasher) throws IOException
+	{
+		try (InputStream in = new FileInputStream(file))
+		{
+			ByteStreams.copy(ByteStreams.limit(in, length), Funnels.asOutputStream(hasher));
+		}
+	}
+
+	private static boolean isRangeFrom(String contentRange, long offset)
+	{
+		// Content-Range: bytes <start>-<end>/<total>
+		return contentRange != null && contentRange.startsWith("bytes " + offset + "-");
+	}
+
+	/**
+	 * Reports the running total of bytes read to a progress consumer, and keeps track of the time spent
+	 * waiting on reads
+	 */
+	private static class ProgressInputStream extends FilterInputStream
+	{
+		private final IntConsumer progress;
+		@Getter
+		private int bytesRead;
+		@Getter
+		private long readNanos;
+
+		ProgressInputStream(InputStream in, IntConsumer progress)
+		{
+			super(in);
+			this.progress = progress;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			long start = System.nanoTime();
+			int b = super.read();
+			readNanos += System.nanoTime() - start;
+			if (b != -1)
+			{
+				progress.accept(++bytesRead);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			long start = System.nanoTime();
+			int n = super.read(b, off, len);
+			readNanos += System.nanoTime() - start;
+			if (n > 0)
+			{
+				bytesRead += n;
+				progress.accept(bytesRead);
+			}
+			return n;
+		}
 	}
 }
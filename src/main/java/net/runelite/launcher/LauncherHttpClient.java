@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The launcher wide http client. Connections are pooled per host and reused across the bootstrap
+ * and artifact downloads, and HTTP/2 is used where the server offers it.
+ */
+@Slf4j
+class LauncherHttpClient
+{
+	private static final String USER_AGENT = "RuneLite/" + LauncherProperties.getVersion();
+	static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
+	static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(60);
+
+	private static final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r ->
+	{
+		Thread thread = new Thread(r, "HTTP read timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static HttpClient client;
+	private static Duration readTimeout = DEFAULT_READ_TIMEOUT;
+
+	static synchronized void init(Duration connectTimeout, Duration readTimeout, boolean insecureSkipTlsVerification) throws GeneralSecurityException
+	{
+		HttpClient.Builder builder = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_2)
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.connectTimeout(connectTimeout);
+
+		if (insecureSkipTlsVerification)
+		{
+			TrustManager trustManager = new X509TrustManager()
+			{
+				@Override
+				public void checkClientTrusted(X509Certificate[] chain, String authType)
+				{
+				}
+
+				@Override
+				public void checkServerTrusted(X509Certificate[] chain, String authType)
+				{
+				}
+
+				@Override
+				public X509Certificate[] getAcceptedIssuers()
+				{
+					return new X509Certificate[0];
+				}
+			};
+
+			SSLContext sc = SSLContext.getInstance("TLS");
+			sc.init(null, new TrustManager[]{trustManager}, new SecureRandom());
+			builder.sslContext(sc);
+			// the http client has no hostname verifier hook, this must be set before the first client is built
+			System.setProperty("jdk.internal.httpclient.disableHostnameVerification", "true");
+		}
+
+		LauncherHttpClient.readTimeout = readTimeout;
+		client = builder.build();
+	}
+
+	private static synchronized HttpClient client()
+	{
+		if (client == null)
+		{
+			client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+				.build();
+		}
+		return client;
+	}
+
+	/**
+	 * Create a GET request for the given url with the launcher user agent and timeouts applied
+	 */
+	static HttpRequest.Builder request(String url) throws MalformedURLException
+	{
+		URI uri;
+		try
+		{
+			uri = URI.create(url);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new MalformedURLException(ex.getMessage());
+		}
+
+		return HttpRequest.newBuilder(uri)
+			.header("User-Agent", USER_AGENT)
+			.timeout(readTimeout)
+			.GET();
+	}
+
+	/**
+	 * Send a request. The response body is streamed, and is closed if no data arrives on it for the read timeout.
+	 */
+	static HttpResponse<InputStream> send(HttpRequest request) throws IOException
+	{
+		try
+		{
+			return client().send(request, info -> HttpResponse.BodySubscribers.mapping(
+				HttpResponse.BodySubscribers.ofInputStream(), ReadTimeoutInputStream::new));
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted during request to " + request.uri());
+		}
+	}
+
+	/**
+	 * Send a request, and throw if the server responds with an error
+	 */
+	static HttpResponse<InputStream> sendChecked(HttpRequest request) throws IOException
+	{
+		HttpResponse<InputStream> response = send(request);
+		if (response.statusCode() >= 400)
+		{
+			response.body().close();
+			throw new IOException("Unable to download " + request.uri() + " - HTTP " + response.statusCode());
+		}
+		return response;
+	}
+
+	static byte[] getBytes(String url) throws IOException
+	{
+		HttpResponse<InputStream> response = sendChecked(request(url).build());
+		try (InputStream in = response.body())
+		{
+			return in.readAllBytes();
+		}
+	}
+
+	private static class ReadTimeoutInputStream extends FilterInputStream
+	{
+		private volatile long lastRead = System.nanoTime();
+		private volatile boolean closed;
+		private volatile boolean timedOut;
+
+		ReadTimeoutInputStream(InputStream in)
+		{
+			super(in);
+			schedule();
+		}
+
+		private void schedule()
+		{
+			watchdog.schedule(this::check, readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+
+		private void check()
+		{
+			if (closed)
+			{
+				return;
+			}
+
+			long idle = System.nanoTime() - lastRead;
+			if (idle >= readTimeout.toNanos())
+			{
+				log.debug("Read timed out after {}ms, closing connection", TimeUnit.NANOSECONDS.toMillis(idle));
+				timedOut = true;
+				try
+				{
+					close();
+				}
+				catch (IOException ex)
+				{
+					log.debug("error closing stream", ex);
+				}
+			}
+			else
+			{
+				watchdog.schedule(this::check, readTimeout.toNanos() - idle, TimeUnit.NANOSECONDS);
+			}
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			try
+			{
+				int b = super.read();
+				lastRead = System.nanoTime();
+				return b;
+			}
+			catch (IOException ex)
+			{
+				throw timedOut ? new HttpTimeoutException("read timed out") : ex;
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			try
+			{
+				int i = super.read(b, off, len);
+				lastRead = System.nanoTime();
+				return i;
+			}
+			catch (IOException ex)
+			{
+				throw timedOut ? new HttpTimeoutException("read timed out") : ex;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			closed = true;
+			super.close();
+		}
+	}
+}
@@ -25,6 +25,7 @@
 package net.runelite.launcher;
 
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.launcher.beans.Platform;
 
 @Slf4j
 public class OS
@@ -35,6 +36,7 @@ public class OS
 	}
 
 	private static final OSType DETECTED_OS;
+	private static final String DETECTED_ARCH;
 
 	static
 	{
@@ -60,10 +62,65 @@ public class OS
 		}
 
 		log.debug("Detect OS: {}", DETECTED_OS);
+
+		DETECTED_ARCH = normalizeArch(System.getProperty("os.arch", "generic"));
+		log.debug("Detect arch: {}", DETECTED_ARCH);
 	}
 
 	public static OSType getOs()
 	{
 		return DETECTED_OS;
 	}
+
+	public static String getArch()
+	{
+		return DETECTED_ARCH;
+	}
+
+	/**
+	 * Map the different names used for the same architecture onto one
+	 */
+	static String normalizeArch(String arch)
+	{
+		arch = arch.toLowerCase();
+		switch (arch)
+		{
+			case "amd64":
+			case "x86_64":
+			case "x64":
+				return "x86_64";
+			case "aarch64":
+			case "arm64":
+				return "aarch64";
+			case "x86":
+			case "i386":
+			case "i486":
+			case "i586":
+			case "i686":
+				return "x86";
+			default:
+				return arch;
+		}
+	}
+
+	/**
+	 * @return true if any of the platforms is this one, or if no platforms are given
+	 */
+	public static boolean isSupported(Platform[] platforms)
+	{
+		if (platforms == null || platforms.length == 0)
+		{
+			return true;
+		}
+
+		for (Platform platform : platforms)
+		{
+			if (DETECTED_OS.name().equalsIgnoreCase(platform.getName())
+				&& (platform.getArch() == null || DETECTED_ARCH.equals(normalizeArch(platform.getArch()))))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the output of the client process, so that the client never blocks writing to a full pipe. Lines are
+ * handed to a writer thread through a bounded queue and written to a size rotated log file, and are dropped
+ * rather than waited on if the file can't keep up. The last lines are kept in memory for the crash dialog.
+ */
+@Slf4j
+class OutputPump
+{
+	private static final int QUEUE_SIZE = 8192;
+	private static final int MAX_LINE_LENGTH = 8192;
+	private static final int BACKUPS = 3;
+	// Marks the end of the output for the writer
+	private static final String EOF = new String();
+
+	private final InputStream in;
+	private final File logFile;
+	private final long maxLogSize;
+	private final int tailLines;
+	private final boolean echo;
+
+	private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+	private final Deque<String> tail = new ArrayDeque<>();
+	private final Thread reader = new Thread(this::read, "Client output reader");
+	private final Thread writer = new Thread(this::write, "Client output writer");
+	private long dropped;
+	private long logSize;
+
+	/**
+	 * @param in the output of the process
+	 * @param logFile file to write the output to, which is rotated when it reaches maxLogSize
+	 * @param tailLines number of lines to keep for {@link #getTail()}
+	 * @param echo also print the output to stdout
+	 */
+	OutputPump(InputStream in, File logFile, long maxLogSize, int tailLines, boolean echo)
+	{
+		this.in = in;
+		this.logFile = logFile;
+		this.maxLogSize = maxLogSize;
+		this.tailLines = tailLines;
+		this.echo = echo;
+	}
+
+	void start()
+	{
+		reader.start();
+		writer.start();
+	}
+
+	/**
+	 * Wait for the output to end and for all of it to be written
+	 */
+	void join() throws InterruptedException
+	{
+		reader.join();
+		writer.join();
+	}
+
+	/**
+	 * @return the last lines of output
+	 */
+	synchronized List<String> getTail()
+	{
+		return new ArrayList<>(tail);
+	}
+
+	private void read()
+	{
+		try (Reader reader = new InputStreamReader(in, outputCharset()))
+		{
+			char[] buffer = new char[8192];
+			StringBuilder line = new StringBuilder();
+			boolean cr = false;
+			for (int n; (n = reader.read(buffer)) != -1; )
+			{
+				for (int i = 0; i < n; ++i)
+				{
+					char c = buffer[i];
+					if (c == '\n' && cr)
+					{
+						// the rest of a \r\n
+						cr = false;
+						continue;
+					}
+
+					cr = c == '\r';
+					if (c == '\n' || c == '\r')
+					{
+						line(line);
+					}
+					else
+					{
+						line.append(c);
+						// output without line breaks is split, rather than buffered without limit
+						if (line.length() >= MAX_LINE_LENGTH)
+						{
+							line(line);
+						}
+					}
+				}
+			}
+
+			if (line.length() > 0)
+			{
+				line(line);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.debug("error reading client output", ex);
+		}
+		finally
+		{
+			if (dropped > 0)
+			{
+				log.warn("Dropped {} lines of client output", dropped);
+			}
+
+			// the writer must see the end of the output even if the queue is full
+			try
+			{
+				queue.put(EOF);
+			}
+			catch (InterruptedException ex)
+			{
+				writer.interrupt();
+			}
+		}
+	}
+
+	private void line(StringBuilder builder)
+	{
+		String line = builder.toString();
+		builder.setLength(0);
+
+		synchronized (this)
+		{
+			if (tail.size() == tailLines)
+			{
+				tail.removeFirst();
+			}
+			tail.addLast(line);
+		}
+
+		if (!queue.offer(line))
+		{
+			++dropped;
+		}
+	}
+
+	/**
+	 * The charset the client writes its output in, which is the platform's rather than the JVM's default
+	 * charset from Java 18
+	 */
+	private static Charset outputCharset()
+	{
+		String encoding = System.getProperty("native.encoding");
+		if (encoding != null)
+		{
+			try
+			{
+				return Charset.forName(encoding);
+			}
+			catch (IllegalArgumentException ex)
+			{
+				log.debug("unsupported native encoding {}", encoding, ex);
+			}
+		}
+		return Charset.defaultCharset();
+	}
+
+	private void write()
+	{
+		Writer out = null;
+		try
+		{
+			out = open();
+			for (String line; (line = take(out)) != EOF; )
+			{
+				if (echo)
+				{
+					System.out.println(line);
+				}
+
+				if (out != null)
+				{
+					out.write(line);
+					out.write(System.lineSeparator());
+					// close enough for rotating, without asking the file system for its size every line
+					logSize += line.length() + System.lineSeparator().length();
+
+					if (logSize >= maxLogSize)
+					{
+						out.close();
+						rotate();
+						out = open();
+					}
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("error writing client output to {}", logFile, ex);
+			// keep draining, so the reader never has to drop lines because of a broken log file
+			drain();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			if (out != null)
+			{
+				try
+				{
+					out.close();
+				}
+				catch (IOException ex)
+				{
+					log.debug("unable to close client output log", ex);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Take the next line, flushing the log whenever the writer catches up with the output
+	 */
+	private String take(Writer out) throws IOException, InterruptedException
+	{
+		String line = queue.poll();
+		if (line == null)
+		{
+			if (out != null)
+			{
+				out.flush();
+			}
+			line = queue.take();
+		}
+		return line;
+	}
+
+	private void drain()
+	{
+		try
+		{
+			while (queue.take() != EOF)
+			{
+				// discard
+				continue;
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Writer open()
+	{
+		logSize = logFile.length();
+		try
+		{
+			return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(logFile, true), StandardCharsets.UTF_8));
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to open {}", logFile, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Shift name.log to name.1.log, name.1.log to name.2.log and so on, dropping the oldest
+	 */
+	private void rotate()
+	{
+		for (int i = BACKUPS; i > 0; --i)
+		{
+			File from = i == 1 ? logFile : backup(i - 1);
+			File to = backup(i);
+			to.delete();
+			from.renameTo(to);
+		}
+	}
+
+	private File backup(int i)
+	{
+		String name = logFile.getName();
+		int dot = name.lastIndexOf('.');
+		String backup = dot == -1 ? name + "." + i : name.substring(0, dot) + "." + i + name.substring(dot);
+		return new File(logFile.getParentFile(), backup);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A set of prefixes compiled into a trie, so a name can be tested against all of them in a single pass
+ * over its characters rather than one {@link String#startsWith(String)} per prefix.
+ */
+class PrefixTrie
+{
+	private final Node root = new Node();
+
+	PrefixTrie(String[] prefixes)
+	{
+		if (prefixes == null)
+		{
+			return;
+		}
+
+		for (String prefix : prefixes)
+		{
+			Node node = root;
+			for (int i = 0; i < prefix.length(); ++i)
+			{
+				node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+			}
+			node.terminal = true;
+		}
+	}
+
+	/**
+	 * @return true if {@code name} starts with any of the prefixes
+	 */
+	boolean matches(String name)
+	{
+		Node node = root;
+		for (int i = 0; !node.terminal; ++i)
+		{
+			if (i == name.length())
+			{
+				return false;
+			}
+
+			node = node.children.get(name.charAt(i));
+			if (node == null)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static class Node
+	{
+		private final Map<Character, Node> children = new HashMap<>();
+		private boolean terminal;
+	}
+}
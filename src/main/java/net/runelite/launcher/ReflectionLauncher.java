@@ -27,8 +27,6 @@ package net.runelite.launcher;
 import java.io.File;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.Collection;
 import java.util.List;
 import javax.swing.UIManager;
@@ -39,16 +37,13 @@ class ReflectionLauncher
 {
 	static void launch(List<File> results, Collection<String> clientArgs) throws MalformedURLException
 	{
-		URL[] jarUrls = new URL[results.size()];
-		int i = 0;
 		for (File file : results)
 		{
 			log.debug("Adding jar: {}", file);
-			jarUrls[i++] = file.toURI().toURL();
 		}
 
 		ClassLoader parent = ClassLoader.getPlatformClassLoader();
-		URLClassLoader loader = new URLClassLoader(jarUrls, parent);
+		IndexedClassLoader loader = new IndexedClassLoader(results, parent);
 
 		UIManager.put("ClassLoader", loader); // hack for Substance
 		Thread thread = new Thread()
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The stages of startup as a graph of tasks. Each task runs on a pool thread once the tasks it comes after
+ * have finished, so stages which don't depend on each other overlap. Tasks are timed, so that the chain of
+ * tasks which actually determined how long startup took can be logged.
+ */
+@Slf4j
+class StartupGraph
+{
+	private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+		.setNameFormat("Startup-%d")
+		.setDaemon(true)
+		.build());
+	private final long origin = System.nanoTime();
+	private final List<Task<?>> tasks = Collections.synchronizedList(new ArrayList<>());
+
+	@Getter
+	class Task<T> extends CompletableFuture<T>
+	{
+		private final String name;
+		private final List<Task<?>> after;
+		private volatile long start;
+		private volatile long end;
+
+		private Task(String name, List<Task<?>> after)
+		{
+			this.name = name;
+			this.after = after;
+		}
+
+		private long startMillis()
+		{
+			return TimeUnit.NANOSECONDS.toMillis(start - origin);
+		}
+
+		private long durationMillis()
+		{
+			return TimeUnit.NANOSECONDS.toMillis(end - start);
+		}
+
+		@Override
+		public String toString()
+		{
+			return name + " (" + startMillis() + "+" + durationMillis() + "ms)";
+		}
+	}
+
+	/**
+	 * Run {@code body} once all of {@code after} have finished, whether or not they succeeded. The body
+	 * is responsible for checking the results of the tasks it uses.
+	 */
+	<T> Task<T> submit(String name, Callable<T> body, Task<?>... after)
+	{
+		Task<T> task = new Task<>(name, Arrays.asList(after));
+		tasks.add(task);
+
+		CompletableFuture.allOf(Arrays.stream(after)
+			.map(dependency -> dependency.handle((result, ex) -> null))
+			.toArray(CompletableFuture[]::new))
+			.thenRunAsync(() ->
+			{
+				task.start = System.nanoTime();
+				T result;
+				try
+				{
+					result = body.call();
+				}
+				catch (Throwable ex)
+				{
+					task.end = System.nanoTime();
+					task.completeExceptionally(ex);
+					return;
+				}
+				task.end = System.nanoTime();
+				task.complete(result);
+			}, executor);
+		return task;
+	}
+
+	Task<Void> run(String name, Runnable body, Task<?>... after)
+	{
+		return submit(name, () ->
+		{
+			body.run();
+			return null;
+		}, after);
+	}
+
+	/**
+	 * A task which only waits for {@code after}, and fails if any of them did
+	 */
+	Task<Void> barrier(String name, Task<?>... after)
+	{
+		return submit(name, () ->
+		{
+			for (Task<?> dependency : after)
+			{
+				try
+				{
+					dependency.get();
+				}
+				catch (ExecutionException ex)
+				{
+					Throwables.propagateIfPossible(ex.getCause(), Exception.class);
+					throw ex;
+				}
+			}
+			return null;
+		}, after);
+	}
+
+	/**
+	 * Log how long each task took, and the critical path to {@code last}
+	 */
+	void logCriticalPath(Task<?> last)
+	{
+		if (log.isDebugEnabled())
+		{
+			synchronized (tasks)
+			{
+				for (Task<?> task : tasks)
+				{
+					if (task.isDone())
+					{
+						log.debug("Startup task {}", task);
+					}
+				}
+			}
+		}
+
+		log.info("Startup took {}ms, critical path: {}", TimeUnit.NANOSECONDS.toMillis(last.getEnd() - origin), criticalPath(last));
+	}
+
+	/**
+	 * @return the tasks leading to {@code last}, each of which was the last of the predecessors of the next to finish
+	 */
+	static List<Task<?>> criticalPath(Task<?> last)
+	{
+		List<Task<?>> path = new ArrayList<>();
+		for (Task<?> task = last; task != null; )
+		{
+			path.add(task);
+
+			Task<?> latest = null;
+			for (Task<?> dependency : task.getAfter())
+			{
+				if (dependency.isDone() && (latest == null || dependency.getEnd() > latest.getEnd()))
+				{
+					latest = dependency;
+				}
+			}
+			task = latest;
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	void shutdown()
+	{
+		executor.shutdownNow();
+	}
+}
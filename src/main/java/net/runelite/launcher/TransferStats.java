@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Observed download throughput and delta apply speed, kept between runs so that the choice between a diff
+ * and a full download can be based on how this machine and its connection actually perform
+ */
+@Slf4j
+class TransferStats
+{
+	private static final Gson GSON = new Gson();
+
+	// Used until there are measurements
+	private static final double DEFAULT_DOWNLOAD_RATE = 2 * 1024 * 1024;
+	private static final double DEFAULT_APPLY_RATE = 32 * 1024 * 1024;
+	// Smaller samples are dominated by latency rather than throughput
+	private static final long MIN_SAMPLE_BYTES = 1024 * 1024;
+	// Weight of a new sample in the moving average
+	private static final double SMOOTHING = 0.3;
+
+	private final File file;
+	private final Rates rates;
+	private boolean dirty;
+
+	@Data
+	private static class Rates
+	{
+		private double downloadRate = DEFAULT_DOWNLOAD_RATE;
+		private double applyRate = DEFAULT_APPLY_RATE;
+	}
+
+	private TransferStats(File file, Rates rates)
+	{
+		this.file = file;
+		this.rates = rates;
+	}
+
+	static TransferStats load(File file)
+	{
+		Rates rates = null;
+		if (file.exists())
+		{
+			try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+			{
+				rates = GSON.fromJson(reader, Rates.class);
+			}
+			catch (IOException | JsonParseException ex)
+			{
+				log.warn("unable to read transfer stats", ex);
+			}
+		}
+
+		if (rates == null || !(rates.getDownloadRate() > 0) || !(rates.getApplyRate() > 0))
+		{
+			rates = new Rates();
+		}
+		return new TransferStats(file, rates);
+	}
+
+	/**
+	 * @return estimated download throughput, in bytes per second
+	 */
+	synchronized double getDownloadRate()
+	{
+		return rates.getDownloadRate();
+	}
+
+	/**
+	 * @return estimated rate of writing patched output, in bytes per second
+	 */
+	synchronized double getApplyRate()
+	{
+		return rates.getApplyRate();
+	}
+
+	synchronized void recordDownload(long bytes, long nanos)
+	{
+		if (bytes >= MIN_SAMPLE_BYTES && nanos > 0)
+		{
+			rates.setDownloadRate(smooth(rates.getDownloadRate(), bytes, nanos));
+			dirty = true;
+		}
+	}
+
+	synchronized void recordApply(long bytes, long nanos)
+	{
+		if (bytes >= MIN_SAMPLE_BYTES && nanos > 0)
+		{
+			rates.setApplyRate(smooth(rates.getApplyRate(), bytes, nanos));
+			dirty = true;
+		}
+	}
+
+	private static double smooth(double rate, long bytes, long nanos)
+	{
+		double sample = bytes / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+		return rate + SMOOTHING * (sample - rate);
+	}
+
+	synchronized void save()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		log.debug("Download rate {} KiB/s, apply rate {} KiB/s", (long) rates.getDownloadRate() / 1024, (long) rates.getApplyRate() / 1024);
+
+		try
+		{
+			AtomicFiles.writeJson(file, GSON, rates);
+			dirty = false;
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write transfer stats", ex);
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.archivepatcher.shared.DefaultDeflateCompatibilityWindow;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Whether the system zlib produces the exact deflate output archive-patcher needs to apply diffs. Probing
+ * this means deflating a test corpus, so the result is kept until the JVM or its zlib changes.
+ */
+@Slf4j
+class ZlibCompatibility
+{
+	private static final Gson GSON = new Gson();
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private static class Probe
+	{
+		private String javaHome;
+		private String javaVersion;
+		private String zlib;
+		private boolean compatible;
+	}
+
+	static boolean isCompatible(File cacheFile)
+	{
+		Probe current = new Probe(System.getProperty("java.home"), System.getProperty("java.runtime.version"), zlibVersion(), false);
+
+		Probe cached = read(cacheFile);
+		if (cached != null
+			&& Objects.equals(cached.getJavaHome(), current.getJavaHome())
+			&& Objects.equals(cached.getJavaVersion(), current.getJavaVersion())
+			&& Objects.equals(cached.getZlib(), current.getZlib()))
+		{
+			log.debug("Using cached zlib compatibility: {}", cached.isCompatible());
+			return cached.isCompatible();
+		}
+
+		long start = System.nanoTime();
+		current.setCompatible(new DefaultDeflateCompatibilityWindow().isCompatible());
+		log.debug("Probed zlib compatibility in {}ms: {}", (System.nanoTime() - start) / 1_000_000, current.isCompatible());
+		if (!current.isCompatible())
+		{
+			log.debug("System zlib is not compatible with archive-patcher; not using diffs");
+		}
+
+		write(cacheFile, current);
+		return current.isCompatible();
+	}
+
+	/**
+	 * Java has no API for the zlib version, so identify the native library zlib is loaded from instead.
+	 * That is the system libz if the JVM links against it, otherwise the JVM's own zip library, which has
+	 * zlib built in.
+	 */
+	private static String zlibVersion()
+	{
+		// make sure the zip library is loaded
+		new Deflater().end();
+
+		if (OS.getOs() == OS.OSType.Linux)
+		{
+			try
+			{
+				List<String> maps = Files.readAllLines(Paths.get("/proc/self/maps"));
+				for (String map : maps)
+				{
+					int idx = map.indexOf('/');
+					if (idx != -1 && map.contains("/libz.so"))
+					{
+						return describe(new File(map.substring(idx)));
+					}
+				}
+			}
+			catch (IOException ex)
+			{
+				log.debug("unable to read memory maps", ex);
+			}
+		}
+
+		File javaHome = new File(System.getProperty("java.home"));
+		for (File lib : new File[]{
+			new File(javaHome, "lib/libzip.so"),
+			new File(javaHome, "lib/libzip.dylib"),
+			new File(javaHome, "bin/zip.dll")})
+		{
+			if (lib.exists())
+			{
+				return describe(lib);
+			}
+		}
+		return null;
+	}
+
+	private static String describe(File lib)
+	{
+		return lib.getAbsolutePath() + ":" + lib.length() + ":" + lib.lastModified();
+	}
+
+	private static Probe read(File file)
+	{
+		if (!file.exists())
+		{
+			return null;
+		}
+
+		try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+		{
+			return GSON.fromJson(reader, Probe.class);
+		}
+		catch (IOException | JsonParseException ex)
+		{
+			log.warn("unable to read zlib compatibility", ex);
+			return null;
+		}
+	}
+
+	private static void write(File file, Probe probe)
+	{
+		try
+		{
+			AtomicFiles.writeJson(file, GSON, probe);
+		}
+		catch (IOException ex)
+		{
+			log.warn("unable to write zlib compatibility", ex);
+		}
+	}
+}
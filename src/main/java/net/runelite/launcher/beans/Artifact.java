@@ -34,4 +34,8 @@ public class Artifact
 	private String hash;
 	private int size;
 	private Diff[] diffs;
+	/**
+	 * The platforms this artifact is used on, or null if it is used on all of them
+	 */
+	private Platform[] platform;
 }
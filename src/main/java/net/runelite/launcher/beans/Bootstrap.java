@@ -24,13 +24,21 @@
  */
 package net.runelite.launcher.beans;
 
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 @Data
 public class Bootstrap
 {
 	private String[] clientJvm9Arguments;
 	private Artifact[] artifacts;
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private transient Map<String, Artifact> artifactsByName;
 
 	private String[] launcherJvm11WindowsArguments;
 	private String[] launcherJvm11MacArguments;
@@ -40,4 +48,31 @@ public class Bootstrap
 	private String requiredLauncherVersion;
 	private String requiredJVMVersion;
 	private String patchMinor;
+
+	public void setArtifacts(Artifact[] artifacts)
+	{
+		this.artifacts = artifacts;
+		this.artifactsByName = null;
+	}
+
+	/**
+	 * @return the artifact with the given file name, or null
+	 */
+	public Artifact getArtifact(String name)
+	{
+		Map<String, Artifact> index = artifactsByName;
+		if (index == null)
+		{
+			index = new HashMap<>();
+			if (artifacts != null)
+			{
+				for (Artifact artifact : artifacts)
+				{
+					index.put(artifact.getName(), artifact);
+				}
+			}
+			artifactsByName = index;
+		}
+		return index.get(name);
+	}
 }
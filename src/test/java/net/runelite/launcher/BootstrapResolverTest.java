@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Bootstrap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BootstrapResolverTest
+{
+	@Test
+	public void testResolve()
+	{
+		Bootstrap blue = new Bootstrap();
+		blue.setArtifacts(new Artifact[]{artifact("blue-patch-1.jar", "a"), artifact("guava-28.0-jre.jar", "b"), artifact("gson-2.8.5.jar", "c")});
+		blue.setClientJvm9Arguments(new String[]{"-Xmx768m", "-XX:+UseG1GC", "-Dsun.java2d.opengl=true"});
+		blue.setRemoves(new String[]{"net/runelite/client/a/", "net/runelite/client/b/"});
+		blue.setPatchMinor("5");
+		blue.setRequiredJVMVersion("11.0.2");
+
+		Bootstrap runelite = new Bootstrap();
+		runelite.setArtifacts(new Artifact[]{artifact("client-1.6.jar", "d"), artifact("guava-23.2-jre.jar", "e"), artifact("gson-2.8.5.jar", "c"),
+			artifact("lwjgl-3.2.3-natives-linux.jar", "f"), artifact("lwjgl-3.2.3-natives-windows.jar", "g")});
+		runelite.setClientJvm9Arguments(new String[]{"-Xmx512m", "-XX:-UseG1GC", "-Dsun.java2d.opengl=false", "-Xss2m"});
+		runelite.setLauncherJvm11Arguments(new String[]{"-Xmx512m", "--add-opens", "java.base/java.lang=ALL-UNNAMED"});
+		blue.setLauncherJvm11Arguments(new String[]{"--add-opens", "java.desktop/sun.awt=ALL-UNNAMED", "--add-opens", "java.base/java.lang=ALL-UNNAMED"});
+		runelite.setRemoves(new String[]{"net/runelite/client/b/", "net/runelite/client/c/"});
+		runelite.setRequiredJVMVersion("11.0.10");
+		runelite.setRequiredLauncherVersion("2.0.0");
+
+		Bootstrap resolved = new BootstrapResolver()
+			.add(blue)
+			.add(runelite)
+			.resolve();
+
+		Assert.assertArrayEquals(new String[]{"blue-patch-1.jar", "guava-28.0-jre.jar", "gson-2.8.5.jar", "client-1.6.jar",
+			"lwjgl-3.2.3-natives-linux.jar", "lwjgl-3.2.3-natives-windows.jar"}, names(resolved.getArtifacts()));
+		Assert.assertArrayEquals(new String[]{"-Xmx768m", "-XX:+UseG1GC", "-Dsun.java2d.opengl=true", "-Xss2m"}, resolved.getClientJvm9Arguments());
+		Assert.assertArrayEquals(new String[]{"--add-opens", "java.desktop/sun.awt=ALL-UNNAMED", "--add-opens", "java.base/java.lang=ALL-UNNAMED", "-Xmx512m"},
+			resolved.getLauncherJvm11Arguments());
+		Assert.assertNull(resolved.getLauncherJvm11MacArguments());
+		Assert.assertArrayEquals(new String[]{"net/runelite/client/a/", "net/runelite/client/b/", "net/runelite/client/c/"}, resolved.getRemoves());
+		Assert.assertEquals("5", resolved.getPatchMinor());
+		Assert.assertEquals("11.0.10", resolved.getRequiredJVMVersion());
+		Assert.assertEquals("2.0.0", resolved.getRequiredLauncherVersion());
+
+		Assert.assertEquals("b", resolved.getArtifact("guava-28.0-jre.jar").getHash());
+		Assert.assertNull(resolved.getArtifact("guava-23.2-jre.jar"));
+	}
+
+	@Test
+	public void testFlag()
+	{
+		Assert.assertEquals("-XX:UseG1GC", BootstrapResolver.flag("-XX:+UseG1GC"));
+		Assert.assertEquals("-XX:UseG1GC", BootstrapResolver.flag("-XX:-UseG1GC"));
+		Assert.assertEquals("-XX:ErrorFile", BootstrapResolver.flag("-XX:ErrorFile=/tmp/a=b"));
+		Assert.assertEquals("-Xmx", BootstrapResolver.flag("-Xmx1g"));
+		Assert.assertEquals("-Dfoo", BootstrapResolver.flag("-Dfoo=bar"));
+		Assert.assertEquals("--add-opens", BootstrapResolver.flag("--add-opens"));
+	}
+
+	private static Artifact artifact(String name, String hash)
+	{
+		Artifact artifact = new Artifact();
+		artifact.setName(name);
+		artifact.setHash(hash);
+		return artifact;
+	}
+
+	private static String[] names(Artifact[] artifacts)
+	{
+		String[] names = new String[artifacts.length];
+		for (int i = 0; i < artifacts.length; ++i)
+		{
+			names[i] = artifacts[i].getName();
+		}
+		return names;
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClientErgonomicsTest
+{
+	private static final long GB = 1024L * 1024 * 1024;
+
+	@Test
+	public void testSmallMachine()
+	{
+		List<String> args = ClientErgonomics.jvmArgs(Collections.emptyList(), 2 * GB, 2, 1, 11);
+		Assert.assertEquals(Arrays.asList("-Xmx512m", "-Xms128m", "-XX:+UseG1GC",
+			"-XX:ParallelGCThreads=2", "-XX:ConcGCThreads=1", "-XX:+UseStringDeduplication"), args);
+	}
+
+	@Test
+	public void testSharedMachine()
+	{
+		// four clients leave each one a single core
+		List<String> args = ClientErgonomics.jvmArgs(Collections.emptyList(), 8 * GB, 4, 4, 17);
+		Assert.assertEquals(Arrays.asList("-Xmx512m", "-Xms128m", "-XX:+UseSerialGC"), args);
+	}
+
+	@Test
+	public void testLargeMachine()
+	{
+		List<String> args = ClientErgonomics.jvmArgs(Collections.emptyList(), 32 * GB, 16, 1, 21);
+		Assert.assertEquals(Arrays.asList("-Xmx4096m", "-Xms1024m", "-XX:+UseZGC", "-XX:+ZGenerational",
+			"-XX:ConcGCThreads=2", "-XX:+UseStringDeduplication"), args);
+	}
+
+	@Test
+	public void testExplicitHeap()
+	{
+		// a small explicit heap doesn't get ZGC, however large the machine
+		List<String> args = ClientErgonomics.jvmArgs(Collections.singletonList("-Xmx768m"), 32 * GB, 16, 1, 21);
+		Assert.assertEquals(Arrays.asList("-XX:+UseG1GC", "-XX:ParallelGCThreads=8", "-XX:ConcGCThreads=2",
+			"-XX:+UseStringDeduplication"), args);
+
+		args = ClientErgonomics.jvmArgs(Collections.singletonList("-Xmx256M"), 32 * GB, 16, 1, 21);
+		Assert.assertEquals(Arrays.asList("-XX:+UseSerialGC", "-XX:+UseStringDeduplication"), args);
+
+		args = ClientErgonomics.jvmArgs(Collections.singletonList("-XX:MaxRAMPercentage=50"), 32 * GB, 16, 1, 21);
+		Assert.assertEquals(Arrays.asList("-XX:+UseZGC", "-XX:+ZGenerational", "-XX:ConcGCThreads=2",
+			"-XX:+UseStringDeduplication"), args);
+
+		Assert.assertEquals(2 * GB, ClientErgonomics.explicitHeap(Arrays.asList("-XX:MaxRAM=8g"), 32 * GB));
+		Assert.assertEquals(-1, ClientErgonomics.explicitHeap(Arrays.asList("-Xms1g"), 32 * GB));
+	}
+
+	@Test
+	public void testExplicit()
+	{
+		List<String> args = ClientErgonomics.jvmArgs(Arrays.asList("-Xmx768m", "-XX:+UseParallelGC"), 16 * GB, 8, 1, 17);
+		Assert.assertEquals(Collections.emptyList(), args);
+
+		args = ClientErgonomics.jvmArgs(Arrays.asList("-XX:ParallelGCThreads=3", "-XX:-UseStringDeduplication"), 16 * GB, 8, 1, 11);
+		Assert.assertEquals(Arrays.asList("-Xmx4096m", "-Xms1024m", "-XX:+UseG1GC", "-XX:ConcGCThreads=2"), args);
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.List;
+import java.util.Map;
+import net.runelite.launcher.beans.Artifact;
+import net.runelite.launcher.beans.Diff;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DiffPlannerTest
+{
+	// the cost is the download size plus a thousandth of the artifact size
+	private final DiffPlanner planner = new DiffPlanner(1, 1000);
+
+	@Test
+	public void testCheapestDiff()
+	{
+		Artifact a = artifact("a-2.jar", "a2", 1000,
+			diff("a-0.jar", "a0", 300),
+			diff("a-1.jar", "a1", 100),
+			diff("a-x.jar", "ax", 10));
+
+		List<DiffPlanner.Step> plan = planner.plan(List.of(a), Map.of("a-0.jar", "a0", "a-1.jar", "a1"), true);
+		Assert.assertEquals(1, plan.size());
+		Assert.assertEquals("a-1.jar", plan.get(0).getDiff().getFrom());
+		Assert.assertEquals(100, plan.get(0).getDownloadSize());
+	}
+
+	@Test
+	public void testFullDownload()
+	{
+		Artifact a = artifact("a-2.jar", "a2", 1000, diff("a-1.jar", "a1", 100));
+
+		// no usable base
+		List<DiffPlanner.Step> plan = planner.plan(List.of(a), Map.of("a-1.jar", "stale"), true);
+		Assert.assertNull(plan.get(0).getDiff());
+
+		// diffs disabled
+		plan = planner.plan(List.of(a), Map.of("a-1.jar", "a1"), false);
+		Assert.assertNull(plan.get(0).getDiff());
+
+		// applying costs more than downloading
+		plan = new DiffPlanner(1000, 1).plan(List.of(a), Map.of("a-1.jar", "a1"), true);
+		Assert.assertNull(plan.get(0).getDiff());
+	}
+
+	@Test
+	public void testChained()
+	{
+		Artifact a = artifact("a-2.jar", "a2", 1000, diff("a-1.jar", "a1", 100));
+		Artifact b = artifact("b-2.jar", "b2", 5000, diff("a-2.jar", "a2", 50));
+		// the replaced version of a can't be used while a is being rewritten
+		Artifact c = artifact("c-2.jar", "c2", 5000, diff("a-2.jar", "a1", 10));
+
+		List<DiffPlanner.Step> plan = planner.plan(List.of(b, c, a), Map.of("a-1.jar", "a1", "a-2.jar", "a1"), true);
+		Assert.assertEquals(3, plan.size());
+		Assert.assertSame(a, plan.get(0).getArtifact());
+		Assert.assertEquals(0, plan.get(0).getWave());
+
+		DiffPlanner.Step bStep = plan.stream().filter(s -> s.getArtifact() == b).findFirst().get();
+		Assert.assertSame(a, bStep.getBase());
+		Assert.assertEquals(1, bStep.getWave());
+		Assert.assertTrue(plan.indexOf(bStep) > 0);
+
+		DiffPlanner.Step cStep = plan.stream().filter(s -> s.getArtifact() == c).findFirst().get();
+		Assert.assertNull(cStep.getDiff());
+	}
+
+	@Test
+	public void testCycle()
+	{
+		Artifact a = artifact("a-2.jar", "a2", 1000, diff("b-2.jar", "b2", 10));
+		Artifact b = artifact("b-2.jar", "b2", 2000, diff("a-2.jar", "a2", 10));
+
+		List<DiffPlanner.Step> plan = planner.plan(List.of(a, b), Map.of(), true);
+		Assert.assertEquals(2, plan.size());
+		Assert.assertNull(plan.get(0).getDiff());
+		Assert.assertSame(plan.get(0).getArtifact(), plan.get(1).getBase());
+	}
+
+	private static Artifact artifact(String name, String hash, int size, Diff... diffs)
+	{
+		Artifact artifact = new Artifact();
+		artifact.setName(name);
+		artifact.setHash(hash);
+		artifact.setSize(size);
+		artifact.setDiffs(diffs);
+		return artifact;
+	}
+
+	private static Diff diff(String from, String fromHash, int size)
+	{
+		Diff diff = new Diff();
+		diff.setName(from + ".diff");
+		diff.setFrom(from);
+		diff.setFromHash(fromHash);
+		diff.setSize(size);
+		return diff;
+	}
+}
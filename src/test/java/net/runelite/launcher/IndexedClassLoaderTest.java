@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import com.google.common.io.ByteStreams;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexedClassLoaderTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLoad() throws Exception
+	{
+		byte[] trie;
+		try (InputStream in = PrefixTrie.class.getResourceAsStream("PrefixTrie.class"))
+		{
+			trie = ByteStreams.toByteArray(in);
+		}
+
+		File a = jar("a.jar", "net/runelite/launcher/PrefixTrie.class", trie, "a/b/res.txt", "a".getBytes(StandardCharsets.UTF_8));
+		File b = jar("b.jar", "a/b/res.txt", "b".getBytes(StandardCharsets.UTF_8), "root.txt", new byte[0]);
+
+		try (IndexedClassLoader loader = new IndexedClassLoader(Arrays.asList(a, b), ClassLoader.getPlatformClassLoader()))
+		{
+			Class<?> clazz = loader.loadClass("net.runelite.launcher.PrefixTrie");
+			Assert.assertSame(loader, clazz.getClassLoader());
+			Assert.assertNotNull(clazz.getPackage());
+			Assert.assertEquals(a.toURI().toURL(), clazz.getProtectionDomain().getCodeSource().getLocation());
+
+			URL res = loader.getResource("a/b/res.txt");
+			try (InputStream in = res.openStream())
+			{
+				Assert.assertEquals("a", new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8));
+			}
+			List<URL> all = Collections.list(loader.getResources("a/b/res.txt"));
+			Assert.assertEquals(2, all.size());
+			Assert.assertTrue(all.get(1).toString().endsWith("b.jar!/a/b/res.txt"));
+
+			Assert.assertNotNull(loader.getResource("root.txt"));
+			Assert.assertNull(loader.getResource("a/c/res.txt"));
+		}
+	}
+
+	@Test
+	public void testDirectoryOrder() throws Exception
+	{
+		byte[] trie;
+		try (InputStream in = PrefixTrie.class.getResourceAsStream("PrefixTrie.class"))
+		{
+			trie = ByteStreams.toByteArray(in);
+		}
+
+		File first = jar("first.jar", "a/b/first.txt", "jar".getBytes(StandardCharsets.UTF_8));
+		File dir = folder.newFolder("classes");
+		Files.createDirectories(dir.toPath().resolve("net/runelite/launcher"));
+		Files.write(dir.toPath().resolve("net/runelite/launcher/PrefixTrie.class"), trie);
+		Files.createDirectories(dir.toPath().resolve("a/b"));
+		Files.write(dir.toPath().resolve("a/b/res.txt"), "dir".getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.toPath().resolve("a/b/first.txt"), "dir".getBytes(StandardCharsets.UTF_8));
+		File last = jar("last.jar", "net/runelite/launcher/PrefixTrie.class", trie, "a/b/res.txt", "jar".getBytes(StandardCharsets.UTF_8));
+
+		try (IndexedClassLoader loader = new IndexedClassLoader(Arrays.asList(first, dir, last), ClassLoader.getPlatformClassLoader()))
+		{
+			// the directory comes before the last jar, but after the first
+			Class<?> clazz = loader.loadClass("net.runelite.launcher.PrefixTrie");
+			Assert.assertEquals(dir.toURI().toURL(), clazz.getProtectionDomain().getCodeSource().getLocation());
+			Assert.assertEquals("dir", read(loader.getResource("a/b/res.txt")));
+			Assert.assertEquals("jar", read(loader.getResource("a/b/first.txt")));
+
+			List<URL> all = Collections.list(loader.getResources("a/b/res.txt"));
+			Assert.assertEquals(2, all.size());
+			Assert.assertTrue(all.get(1).toString().endsWith("last.jar!/a/b/res.txt"));
+		}
+	}
+
+	@Test
+	public void testEncodedResourceName() throws Exception
+	{
+		File a = jar("a.jar", "a/with space #1 \u00e9.txt", "a".getBytes(StandardCharsets.UTF_8), "a/100%.txt", "b".getBytes(StandardCharsets.UTF_8));
+		try (IndexedClassLoader loader = new IndexedClassLoader(Collections.singletonList(a), ClassLoader.getPlatformClassLoader()))
+		{
+			Assert.assertEquals("a", read(loader.getResource("a/with space #1 \u00e9.txt")));
+			Assert.assertEquals("b", read(loader.getResource("a/100%.txt")));
+		}
+	}
+
+	@Test(expected = ClassNotFoundException.class)
+	public void testMissing() throws Exception
+	{
+		File a = jar("a.jar", "a/A.class", new byte[0]);
+		try (IndexedClassLoader loader = new IndexedClassLoader(Collections.singletonList(a), ClassLoader.getPlatformClassLoader()))
+		{
+			loader.loadClass("b.A");
+		}
+	}
+
+	@Test
+	public void testPackageOf()
+	{
+		Assert.assertEquals("", IndexedClassLoader.packageOf("A.class"));
+		Assert.assertEquals("a/b/", IndexedClassLoader.packageOf("a/b/A.class"));
+		Assert.assertEquals("a/", IndexedClassLoader.packageOf("a/b/"));
+		Assert.assertEquals("", IndexedClassLoader.packageOf("a/"));
+	}
+
+	private static String read(URL url) throws IOException
+	{
+		try (InputStream in = url.openStream())
+		{
+			return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+		}
+	}
+
+	private File jar(String name, Object... entries) throws IOException
+	{
+		File file = folder.newFile(name);
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file)))
+		{
+			for (int i = 0; i < entries.length; i += 2)
+			{
+				out.putNextEntry(new ZipEntry((String) entries[i]));
+				out.write((byte[]) entries[i + 1]);
+				out.closeEntry();
+			}
+		}
+		return file;
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarFilterTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFilter() throws IOException
+	{
+		File in = folder.newFile("in.jar");
+		File out = folder.newFile("out.jar");
+
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(in), manifest))
+		{
+			jos.setComment("comment");
+			jos.putNextEntry(new ZipEntry("net/runelite/"));
+			put(jos, "net/runelite/Kept.class", "kept");
+			put(jos, "net/runelite/removed/Removed.class", "removed");
+			putStored(jos, "stored.txt", "stored");
+			put(jos, "net/runelite/Other.class", "other");
+		}
+
+		JarFilter.filter(in, out, name -> !name.startsWith("net/runelite/removed/"));
+
+		try (ZipFile zip = new ZipFile(out))
+		{
+			Assert.assertEquals("comment", zip.getComment());
+			Assert.assertEquals(4, zip.size());
+			Assert.assertNull(zip.getEntry("META-INF/MANIFEST.MF"));
+			Assert.assertNull(zip.getEntry("net/runelite/removed/Removed.class"));
+			Assert.assertEquals("kept", read(zip, "net/runelite/Kept.class"));
+			Assert.assertEquals("stored", read(zip, "stored.txt"));
+			Assert.assertEquals("other", read(zip, "net/runelite/Other.class"));
+		}
+
+		// the local headers must also be intact for streaming readers
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream zis = new ZipInputStream(new FileInputStream(out)))
+		{
+			for (ZipEntry entry; (entry = zis.getNextEntry()) != null; )
+			{
+				names.add(entry.getName());
+				zis.readAllBytes();
+			}
+		}
+		Assert.assertEquals(List.of("net/runelite/", "net/runelite/Kept.class", "stored.txt", "net/runelite/Other.class"), names);
+	}
+
+	@Test
+	public void testFilterEverything() throws IOException
+	{
+		File in = folder.newFile("in.jar");
+		File out = folder.newFile("out.jar");
+
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(in)))
+		{
+			put(jos, "a.class", "a");
+		}
+
+		JarFilter.filter(in, out, name -> false);
+
+		try (ZipFile zip = new ZipFile(out))
+		{
+			Assert.assertEquals(Collections.emptyList(), Collections.list(zip.entries()));
+		}
+	}
+
+	private static void put(JarOutputStream jos, String name, String contents) throws IOException
+	{
+		jos.putNextEntry(new ZipEntry(name));
+		jos.write(contents.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void putStored(JarOutputStream jos, String name, String contents) throws IOException
+	{
+		byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(bytes.length);
+		entry.setCrc(crc.getValue());
+		jos.putNextEntry(entry);
+		jos.write(bytes);
+	}
+
+	private static String read(ZipFile zip, String name) throws IOException
+	{
+		return new String(zip.getInputStream(zip.getEntry(name)).readAllBytes(), StandardCharsets.UTF_8);
+	}
+}
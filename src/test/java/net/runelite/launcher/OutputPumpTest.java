@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OutputPumpTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testTail() throws Exception
+	{
+		File log = new File(folder.getRoot(), "client_output.log");
+		OutputPump pump = new OutputPump(input("a\nb\nc\nd\n"), log, Long.MAX_VALUE, 2, false);
+		pump.start();
+		pump.join();
+
+		Assert.assertEquals(Arrays.asList("c", "d"), pump.getTail());
+		Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), Files.readAllLines(log.toPath()));
+	}
+
+	@Test
+	public void testLines() throws Exception
+	{
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < 10000; ++i)
+		{
+			longLine.append('x');
+		}
+
+		File log = new File(folder.getRoot(), "client_output.log");
+		OutputPump pump = new OutputPump(input("a\r\nb\rc\n" + longLine + "\nd"), log, Long.MAX_VALUE, 10, false);
+		pump.start();
+		pump.join();
+
+		List<String> tail = pump.getTail();
+		Assert.assertEquals(Arrays.asList("a", "b", "c"), tail.subList(0, 3));
+		// a line without a break in it is split
+		Assert.assertEquals(8192, tail.get(3).length());
+		Assert.assertEquals(10000 - 8192, tail.get(4).length());
+		Assert.assertEquals("d", tail.get(5));
+		Assert.assertEquals(6, tail.size());
+	}
+
+	@Test
+	public void testRotate() throws Exception
+	{
+		File log = new File(folder.getRoot(), "client_output.log");
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < 100; ++i)
+		{
+			output.append(String.format("line %02d%n", i));
+		}
+
+		// every 10 lines fill a file
+		long size = 10 * ("line 00" + System.lineSeparator()).length();
+		OutputPump pump = new OutputPump(input(output.toString()), log, size, 1, false);
+		pump.start();
+		pump.join();
+
+		Assert.assertEquals(0, log.length());
+		List<String> newest = Files.readAllLines(new File(folder.getRoot(), "client_output.1.log").toPath());
+		Assert.assertEquals(10, newest.size());
+		Assert.assertEquals("line 99", newest.get(9));
+		Assert.assertEquals("line 79", Files.readAllLines(new File(folder.getRoot(), "client_output.3.log").toPath()).get(9));
+		Assert.assertFalse(new File(folder.getRoot(), "client_output.4.log").exists());
+	}
+
+	private static ByteArrayInputStream input(String s)
+	{
+		return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrefixTrieTest
+{
+	@Test
+	public void testMatches()
+	{
+		PrefixTrie trie = new PrefixTrie(new String[]{"net/runelite/client/plugins/", "net/runelite/client/Foo", "META-INF/"});
+		Assert.assertTrue(trie.matches("net/runelite/client/plugins/a/A.class"));
+		Assert.assertTrue(trie.matches("net/runelite/client/plugins/"));
+		Assert.assertTrue(trie.matches("net/runelite/client/FooBar.class"));
+		Assert.assertTrue(trie.matches("META-INF/a.SF"));
+		Assert.assertFalse(trie.matches("net/runelite/client/plugins"));
+		Assert.assertFalse(trie.matches("net/runelite/client/Fo.class"));
+		Assert.assertFalse(trie.matches("net/runelite/api/Client.class"));
+		Assert.assertFalse(trie.matches(""));
+	}
+
+	@Test
+	public void testEmpty()
+	{
+		Assert.assertFalse(new PrefixTrie(null).matches("a"));
+		Assert.assertFalse(new PrefixTrie(new String[0]).matches("a"));
+		Assert.assertTrue(new PrefixTrie(new String[]{""}).matches("a"));
+	}
+}
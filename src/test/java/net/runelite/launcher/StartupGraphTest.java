@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026, Bloodspawns
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.launcher;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StartupGraphTest
+{
+	@Test
+	public void testCriticalPath() throws Exception
+	{
+		StartupGraph graph = new StartupGraph();
+		try
+		{
+			StartupGraph.Task<Integer> slow = graph.submit("slow", () ->
+			{
+				Thread.sleep(200);
+				return 1;
+			});
+			StartupGraph.Task<Integer> fast = graph.submit("fast", () -> 2);
+			StartupGraph.Task<Integer> sum = graph.submit("sum", () -> slow.get() + fast.get(), slow, fast);
+			StartupGraph.Task<Void> ready = graph.barrier("ready", sum, fast);
+
+			ready.get();
+			Assert.assertEquals(3, (int) sum.get());
+			Assert.assertTrue(sum.getStart() >= slow.getEnd());
+
+			List<String> path = StartupGraph.criticalPath(ready).stream()
+				.map(StartupGraph.Task::getName)
+				.collect(Collectors.toList());
+			Assert.assertEquals(List.of("slow", "sum", "ready"), path);
+		}
+		finally
+		{
+			graph.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailure() throws Exception
+	{
+		StartupGraph graph = new StartupGraph();
+		try
+		{
+			StartupGraph.Task<Void> failed = graph.submit("failed", () ->
+			{
+				throw new IllegalStateException();
+			});
+			// dependents still run, and see the failure
+			StartupGraph.Task<Boolean> dependent = graph.submit("dependent", () -> failed.isCompletedExceptionally(), failed);
+			Assert.assertTrue(dependent.get());
+
+			try
+			{
+				graph.barrier("ready", failed, dependent).get();
+				Assert.fail();
+			}
+			catch (ExecutionException ex)
+			{
+				Assert.assertTrue(ex.getCause() instanceof IllegalStateException);
+			}
+		}
+		finally
+		{
+			graph.shutdown();
+		}
+	}
+}